@@ -6,17 +6,28 @@ import javax.sql.DataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import com.zaxxer.hikari.HikariDataSource;
 
 @Configuration // Indicates that this class contains Spring configuration definitions.
 @EnableTransactionManagement // Enables Spring's annotation-driven transaction management.
-@ComponentScan(basePackages = "com.davis") // Scans the specified package for Spring components (e.g., @Service, @Repository).
+// Scans the specified package for Spring components (e.g., @Service, @Repository). Controllers and the web
+// configuration belong to the dispatcher servlet context, so they are left out of the root context.
+@ComponentScan(basePackages = "com.davis", excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION,
+        classes = { Controller.class, Configuration.class }))
 public class AppConfig {
 
+    /**
+     * System property that enables Hibernate statistics (e.g. {@code -Daisms.hibernate.statistics=true}).
+     * They are off by default: collecting them adds bookkeeping to every statement and cache access.
+     */
+    public static final String STATISTICS_PROPERTY = "aisms.hibernate.statistics";
+
     /**
      * Creates and configures a HikariDataSource bean for database connectivity.
      * 
@@ -64,6 +75,20 @@ public class AppConfig {
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.SQLServerDialect"); // Sets the SQL Server dialect.
         properties.setProperty("hibernate.show_sql", "true"); // Enables logging of SQL statements.
         properties.setProperty("hibernate.format_sql", "true"); // Formats SQL statements for better readability.
+        properties.setProperty("hibernate.jdbc.batch_size", "50"); // Sends inserts and updates in JDBC batches.
+        properties.setProperty("hibernate.order_inserts", "true"); // Groups inserts by table so batches are not broken up.
+
+        // Second-level and query cache for reference data (regions are sized in application.conf)
+        properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE"); // Caches only entities marked @Cacheable.
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true"); // Enables the entity cache.
+        properties.setProperty("hibernate.cache.use_query_cache", "true"); // Enables caching of queries marked cacheable.
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache"); // Uses JCache as the cache implementation.
+        properties.setProperty("hibernate.javax.cache.provider",
+                "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"); // Uses Caffeine as the JCache provider.
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail"); // Every region must be configured.
+        properties.setProperty("hibernate.generate_statistics",
+                System.getProperty(STATISTICS_PROPERTY, "false")); // Collects statement and cache statistics on request only.
+        properties.setProperty("hibernate.session.events.log", "false"); // Keeps statistics out of the per-session log.
         
         return properties; // Returns the configured properties.
     }
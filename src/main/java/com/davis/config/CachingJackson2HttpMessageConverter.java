@@ -0,0 +1,63 @@
+package com.davis.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StreamUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+
+/**
+ * JSON message converter that keeps one {@link ObjectWriter} per collection response type
+ * (e.g. {@code List<Inventory>}). A cached writer has its root serializer resolved once, so list
+ * responses skip building a writer and looking up the serializer on every request.
+ *
+ * Single objects are written by the default implementation, which serializes them by their
+ * runtime type (e.g. Hibernate proxies).
+ */
+class CachingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ConcurrentMap<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>(); // Writer per response type
+
+    CachingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        // Views and filters need a writer built for the call
+        if (type == null || object instanceof MappingJacksonValue) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        JavaType javaType = getJavaType(type, null);
+        if (!javaType.isContainerType()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ObjectWriter writer = writers.computeIfAbsent(javaType, getObjectMapper()::writerFor);
+        OutputStream body = StreamUtils.nonClosing(outputMessage.getBody());
+        try (JsonGenerator generator = writer.getFactory().createGenerator(body,
+                getJsonEncoding(outputMessage.getHeaders().getContentType()))) {
+            writer.writeValue(generator, object);
+            generator.flush();
+        } catch (InvalidDefinitionException e) {
+            throw new HttpMessageConversionException("Type definition error: " + e.getType(), e);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.davis.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/**
+ * Resolves the Accept header, but only keeps application/xml and text/xml when the client prefers
+ * XML, i.e. when an XML type is the most preferred type of the header.
+ *
+ * Browsers list application/xml with a lower quality than text/html but a higher one than
+ * {@code *}{@code /*} (e.g. Chrome: {@code text/html,...,application/xml;q=0.9,*}{@code /*;q=0.8}).
+ * Spring would then pick the XML list handlers over the JSON ones; without the XML types in the
+ * resolved list, browsers get the JSON default like any other client without a preference.
+ */
+class PreferredXmlNegotiationStrategy implements ContentNegotiationStrategy {
+
+    private final ContentNegotiationStrategy delegate;
+
+    /**
+     * @param delegate The strategy resolving the media types, e.g. from the Accept header.
+     */
+    PreferredXmlNegotiationStrategy(ContentNegotiationStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Resolves the media types with the delegate and drops the XML types unless one of them is
+     * preferred.
+     *
+     * @param request The current request.
+     * @return The requested media types, in the order of the delegate.
+     * @throws HttpMediaTypeNotAcceptableException If the delegate cannot parse the requested types.
+     */
+    @Override
+    public List<MediaType> resolveMediaTypes(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> mediaTypes = delegate.resolveMediaTypes(request);
+        if (mediaTypes.size() < 2) {
+            return mediaTypes; // XML alone (or nothing) is asked for as it is
+        }
+        // The highest quality comes first; on equal quality, specific types before wildcards, then header order
+        List<MediaType> byPreference = new ArrayList<>(mediaTypes);
+        MediaType.sortByQualityValue(byPreference);
+        if (isXml(byPreference.get(0))) {
+            return mediaTypes;
+        }
+        List<MediaType> withoutXml = new ArrayList<>(mediaTypes.size());
+        for (MediaType mediaType : mediaTypes) {
+            if (!isXml(mediaType)) {
+                withoutXml.add(mediaType);
+            }
+        }
+        return withoutXml;
+    }
+
+    private static boolean isXml(MediaType mediaType) {
+        return mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_XML)
+                || mediaType.equalsTypeAndSubtype(MediaType.TEXT_XML);
+    }
+}
@@ -1,6 +1,9 @@
 package com.davis.config;
 
+import javax.servlet.Filter;
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
+import com.davis.filter.CompressionFilter;
 
 /**
  * Initializes the Spring web application by configuring the root application context,
@@ -47,4 +50,18 @@ public class WebAppInitializer extends AbstractAnnotationConfigDispatcherServlet
     protected String[] getServletMappings() {
         return new String[] { "/" }; // Maps all requests to the dispatcher servlet
     }
-}
\ No newline at end of file
+
+    /**
+     * Specifies the filters applied to requests handled by the dispatcher servlet.
+     * The filters are registered with async support, so they also see the async dispatches of streaming responses.
+     *
+     * @return An array of servlet filters.
+     */
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[] {
+            new CompressionFilter(), // Compresses large textual responses (gzip/deflate)
+            new DelegatingFilterProxy("idempotencyFilter") // Replays responses of retried POSTs (bean in the root context)
+        };
+    }
+}
@@ -1,36 +1,108 @@
 package com.davis.config;
 
+import java.util.Collections;
 import java.util.List;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.http.converter.xml.Jaxb2RootElementHttpMessageConverter;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
 /**
  * Configuration class for setting up Spring Web MVC.
- * This class enables Spring MVC, configures message converters for JSON and XML,
- * and scans the specified package for Spring components.
+ * This class enables Spring MVC, configures message converters for JSON, XML and the binary
+ * Smile and CBOR formats,
+ * and scans the controller package for Spring MVC controllers.
  * @author CYPRIAN DAVIS
  */
 @Configuration // Indicates that this class contains Spring configuration definitions.
 @EnableWebMvc // Enables Spring MVC and registers default configurations.
-@ComponentScan(basePackages = "com.davis") // Scans the specified package for Spring components (e.g., @Controller, @Service).
+@ComponentScan(basePackages = "com.davis.controller") // Scans for controllers; services and DAOs come from the root context.
 public class WebConfig implements WebMvcConfigurer {
 
+    /**
+     * Creates the Jackson object mapper shared by the JSON message converter
+     * and the streaming export endpoints.
+     *
+     * @return ObjectMapper - The configured object mapper.
+     */
+    @Bean
+    @Primary // XmlMapper is an ObjectMapper as well; plain ObjectMapper injection points get this one
+    public ObjectMapper objectMapper() {
+        return tuned(Jackson2ObjectMapperBuilder.json()).build();
+    }
+
+    /**
+     * Creates the Jackson XML mapper used by the streaming XML list endpoints.
+     *
+     * @return XmlMapper - The configured XML mapper.
+     */
+    @Bean
+    public XmlMapper xmlMapper() {
+        return tuned(Jackson2ObjectMapperBuilder.xml()).build();
+    }
+
+    /**
+     * Applies the settings shared by the JSON, Smile and CBOR mappers.
+     * Afterburner replaces reflective getter and setter calls with generated accessors; it is used
+     * rather than Blackbird because the application targets Java 8.
+     *
+     * @param builder - The builder of the mapper.
+     * @return Jackson2ObjectMapperBuilder - The same builder, tuned.
+     */
+    private static Jackson2ObjectMapperBuilder tuned(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .modulesToInstall(new JavaTimeModule(), new AfterburnerModule())
+                // The converters and streaming endpoints flush once per response themselves;
+                // timestamps are written as ISO-8601 text rather than arrays of numbers
+                .featuresToDisable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE,
+                        SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Configures how the requested format is determined.
+     * The format comes from the Accept header, as before, but XML is only served when the client
+     * prefers it; browsers, which also accept XML with a lower quality, get the JSON default.
+     *
+     * @param configurer - The content negotiation configurer.
+     */
+    @Override
+    public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+        configurer.strategies(Collections.singletonList(
+                new PreferredXmlNegotiationStrategy(new HeaderContentNegotiationStrategy())));
+    }
+
     /**
      * Configures the message converters for the application.
-     * This method adds support for JSON and XML message conversion.
+     * This method adds support for JSON and XML message conversion, and for the binary Smile
+     * and CBOR formats used by internal services. The format is negotiated through the Accept
+     * and Content-Type headers; JSON stays first, so it remains the default.
      *
      * @param converters - A list of {@link HttpMessageConverter} instances to be configured.
      */
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
         // Adds a converter for JSON using Jackson
-        converters.add(new MappingJackson2HttpMessageConverter()); // Supports JSON
+        converters.add(new CachingJackson2HttpMessageConverter(objectMapper())); // Supports JSON
         // Adds a converter for XML using JAXB
         converters.add(new Jaxb2RootElementHttpMessageConverter()); // Supports XML
+        // Adds converters for the binary Jackson formats; they share the JSON annotations of the model
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                tuned(Jackson2ObjectMapperBuilder.smile()).build())); // Supports application/x-jackson-smile
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                tuned(Jackson2ObjectMapperBuilder.cbor()).build())); // Supports application/cbor
     }
 }
\ No newline at end of file
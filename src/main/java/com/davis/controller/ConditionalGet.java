@@ -0,0 +1,71 @@
+package com.davis.controller;
+
+import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET checks for responses that are negotiated from the Accept header.
+ * The JSON, Smile, CBOR and XML bodies of the same data differ byte for byte, so each of them
+ * gets its own ETag: the data version plus the format. The response also varies by Accept, so
+ * caches keep the formats apart and do not answer a request for one format with another.
+ */
+final class ConditionalGet {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets the ETag of the negotiated format and {@code Vary: Accept}, and checks If-None-Match.
+     *
+     * @param webRequest  The current request.
+     * @param negotiation The content negotiation manager of the servlet context.
+     * @param etag        The quoted ETag of the data, e.g. from the service.
+     * @return true if the client's copy is current and the response was set to 304 (Not Modified).
+     */
+    static boolean checkNotModified(WebRequest webRequest, ContentNegotiationManager negotiation, String etag) {
+        NativeWebRequest request = (NativeWebRequest) webRequest;
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT); // Added, so Vary: Accept-Encoding is kept
+        }
+        String format = format(request, negotiation);
+        return webRequest.checkNotModified(etag.substring(0, etag.length() - 1) + "-" + format + "\"");
+    }
+
+    /**
+     * Returns the format the message converters will write, following the converter order of
+     * WebConfig: the first accepted type one of them produces, JSON for wildcards.
+     */
+    private static String format(NativeWebRequest request, ContentNegotiationManager negotiation) {
+        List<MediaType> accepted;
+        try {
+            accepted = negotiation.resolveMediaTypes(request); // Sorted by specificity and quality
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return "json"; // The request is refused when the response is written
+        }
+        for (MediaType mediaType : accepted) {
+            // Wildcards such as */* or application/* are compatible with JSON, the first converter
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || "json".equals(mediaType.getSubtypeSuffix())) {
+                return "json";
+            }
+            if (mediaType.isCompatibleWith(SMILE)) {
+                return "smile";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_XML) || mediaType.isCompatibleWith(MediaType.TEXT_XML)) {
+                return "xml";
+            }
+        }
+        return "json";
+    }
+}
@@ -1,16 +1,41 @@
 package com.davis.controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import javax.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.davis.dto.ChangeSet;
+import com.davis.dto.ImportReport;
+import com.davis.dto.InventorySummary;
+import com.davis.dto.QueuedWrite;
+import com.davis.dto.ReorderAlert;
 import com.davis.model.Inventory;
+import com.davis.service.InventoryImportService;
 import com.davis.service.InventoryService;
+import com.davis.service.InventoryWriteBehind;
+import com.davis.service.ReorderAlerts;
+import com.davis.service.StockCounters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 /**
  * Controller class for handling inventory-related HTTP requests.
@@ -26,6 +51,24 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private InventoryImportService inventoryImportService;
+
+    @Autowired
+    private InventoryWriteBehind inventoryWriteBehind; // Queue of the asynchronous receipts
+
+    @Autowired
+    private StockCounters stockCounters; // In-memory counters of the asynchronous sales
+
+    @Autowired
+    private ReorderAlerts reorderAlerts; // Items at or below their reorder point
+
+    @Autowired
+    private ObjectMapper objectMapper; // Serializes rows of the streaming exports
+
+    @Autowired
+    private XmlMapper xmlMapper; // Serializes rows of the streaming XML lists
+
     /**
      * Handles a GET request to retrieve all inventory items.
      *
@@ -40,17 +83,193 @@ public class InventoryController {
         return inventoryService.getInventory();
     }
 
+    /**
+     * Handles a GET request to retrieve a read-only summary of all inventory items ({@code ?view=summary}).
+     * The summaries are flat and built directly by a projection query, so they are much cheaper
+     * to produce and serialize than the full inventory item entities.
+     *
+     * @return A list of inventory item summaries.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/", method = RequestMethod.GET, params = "view=summary")
+    @ResponseBody
+    public List<InventorySummary> getInventorySummaries() {
+        return inventoryService.getInventorySummaries();
+    }
+
+    /**
+     * Handles a GET request to retrieve all inventory items as XML, for clients preferring application/xml or text/xml
+     * in their Accept header (browsers listing XML below HTML get the JSON list).
+     * The document is written with StAX while the rows are streamed from the database, so memory
+     * use stays flat regardless of the number of inventory items.
+     *
+     * @return A streaming response with a {@code <inventory>} root element holding one {@code <item>} element per row.
+     */
+    @RequestMapping(value = "/", method = RequestMethod.GET,
+            produces = { MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE })
+    public ResponseEntity<StreamingResponseBody> getInventoryXml() {
+        return XmlStreamResponse.of(xmlMapper, "inventory", "item", Inventory.class, inventoryService::exportInventory);
+    }
+
+    /**
+     * Handles a GET request to retrieve the inventory items added or changed since the client's last synchronization.
+     * The rows are read with an index range scan on the last update date, so a terminal downloads
+     * only what changed instead of the complete list.
+     *
+     * @param since The {@code nextToken} of the previous response; omitted on the first synchronization.
+     * @param limit The maximum number of inventory items to return.
+     * @return The changed inventory items, oldest change first, and the token of the next request.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/changes", method = RequestMethod.GET)
+    @ResponseBody
+    public ChangeSet<Inventory> getInventoryChanges(@RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return inventoryService.getInventoryChanges(since, limit);
+    }
+
+    /**
+     * Handles a GET request to export all inventory items as newline-delimited JSON (one inventory item per line).
+     * Rows are streamed from the database straight to the response, so memory use stays flat
+     * regardless of the number of inventory items.
+     *
+     * @return A streaming response with content type application/x-ndjson.
+     */
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportInventory() {
+        return NdjsonResponse.of(objectMapper, Inventory.class, inventoryService::exportInventory);
+    }
+
+    /**
+     * Handles a POST request to import a goods-received note: a CSV file with one inventory item per line.
+     * The file is processed as it is received; rejected lines are listed in the report and do not
+     * stop the import.
+     *
+     * @param request The request whose body holds the CSV file (UTF-8 unless the request states a charset).
+     * @return The import report: rows read and imported, rows per second and rejected lines.
+     * @throws IOException If the request body cannot be read.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/import", method = RequestMethod.POST)
+    @ResponseBody
+    public ImportReport importInventory(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        try (Reader csv = new InputStreamReader(request.getInputStream(), charset)) {
+            return inventoryImportService.importReceipts(csv);
+        }
+    }
+
+    /**
+     * Handles a GET request to retrieve the inventory items at or below their reorder point,
+     * most severe shortfall first. The alerts are kept in memory and updated on every stock
+     * change, so this request never reads the inventory table.
+     *
+     * @param limit The maximum number of alerts to return; all of them if omitted.
+     * @return The reorder alerts.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/alerts/reorder", method = RequestMethod.GET)
+    @ResponseBody
+    public List<ReorderAlert> getReorderAlerts(@RequestParam(required = false) Integer limit) {
+        return reorderAlerts.getAlerts(limit);
+    }
+
+    /**
+     * Handles a POST request to reserve units of an inventory item.
+     *
+     * @param id    The ID of the inventory item.
+     * @param units The number of units to reserve.
+     * @return The inventory item after the reservation; 404 if it does not exist,
+     *         409 if not enough unreserved units are left.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/{id}/reserve", method = RequestMethod.POST)
+    @ResponseBody
+    public InventorySummary reserveUnits(@PathVariable String id, @RequestParam int units) {
+        return inventoryService.reserveUnits(id, units);
+    }
+
+    /**
+     * Handles a POST request to release units of an inventory item reserved earlier.
+     *
+     * @param id    The ID of the inventory item.
+     * @param units The number of units to release.
+     * @return The inventory item after the release; 404 if it does not exist,
+     *         409 if fewer units are reserved.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/{id}/release", method = RequestMethod.POST)
+    @ResponseBody
+    public InventorySummary releaseUnits(@PathVariable String id, @RequestParam int units) {
+        return inventoryService.releaseUnits(id, units);
+    }
+
+    /**
+     * Handles a POST request to record the sale of units of an inventory item.
+     * Without a Prefer header the units are taken out of stock immediately, and only if enough
+     * unreserved units are in stock. With {@code Prefer: respond-async} the sale is added to an
+     * in-memory counter and written to the database in the next batched flush; the response is then
+     * 202 (Accepted) with the durability guarantee. If the in-memory mode is unavailable the sale is
+     * recorded as without the header.
+     *
+     * @param id     The ID of the inventory item.
+     * @param units  The number of units sold.
+     * @param prefer The Prefer header of the request, if any.
+     * @return The inventory item after the sale (200 OK), or the acknowledgement of the recorded sale (202 Accepted);
+     *         404 if the item does not exist, 409 if not enough unreserved units are in stock.
+     */
+    @RequestMapping(value = "/{id}/sell", method = RequestMethod.POST)
+    public ResponseEntity<?> sellUnits(@PathVariable String id, @RequestParam int units,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (prefer != null && prefer.toLowerCase(Locale.ROOT).contains("respond-async")) {
+            QueuedWrite recorded = stockCounters.recordSale(id, units);
+            if (recorded != null) {
+                return ResponseEntity.accepted().header("Preference-Applied", "respond-async").body(recorded);
+            }
+        }
+        return ResponseEntity.ok(inventoryService.sellUnits(id, units));
+    }
+
     /**
      * Handles a POST request to add a new inventory item.
+     * With the header {@code Prefer: respond-async} the item is validated, given its ID and queued
+     * for a background writer; the response is then 202 (Accepted) with the ID and the durability
+     * guarantee. If the queue is full the item is written immediately as without the header.
      *
      * @param inventory The inventory item to be added, provided in the request body.
-     * @return The added inventory item.
-     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @param prefer    The Prefer header of the request, if any.
+     * @return The added inventory item (201 Created; its summary if the queue was full), or the
+     *         acknowledgement of the queued item (202 Accepted).
      */
-    @ResponseStatus(HttpStatus.CREATED)
     @RequestMapping(value = "/", method = RequestMethod.POST)
-    @ResponseBody
-    public Inventory addInventory(@RequestBody Inventory inventory) {
-        return inventoryService.addInventory(inventory);
+    public ResponseEntity<?> addInventory(@RequestBody Inventory inventory,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (prefer != null && prefer.toLowerCase(Locale.ROOT).contains("respond-async")) {
+            QueuedWrite queued = inventoryWriteBehind.submit(inventory);
+            if (queued != null) {
+                return ResponseEntity.accepted().header("Preference-Applied", "respond-async").body(queued);
+            }
+            if (inventory.getInventoryId() != null) {
+                // Validated and given an ID, but the queue filled up in the meantime; the stored entity
+                // refers to uninitialized proxies, so the saved item is read back as a summary
+                inventoryService.addInventories(Collections.singletonList(inventory));
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(inventoryService.getInventorySummary(inventory.getInventoryId()));
+            }
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(inventoryService.addInventory(inventory));
     }
 }
\ No newline at end of file
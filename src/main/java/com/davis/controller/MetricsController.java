@@ -0,0 +1,167 @@
+package com.davis.controller;
+
+import java.util.Map;
+import java.util.TreeMap;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import com.davis.dto.BarcodeIndexMetrics;
+import com.davis.dto.CacheMetrics;
+import com.davis.dto.StockCounterMetrics;
+import com.davis.dto.WriteBehindMetrics;
+import com.davis.filter.IdempotencyFilter;
+import com.davis.model.IdGeneration;
+import com.davis.model.SequenceMetrics;
+import com.davis.service.BarcodeIndex;
+import com.davis.service.InventoryWriteBehind;
+import com.davis.service.ProductCache;
+import com.davis.service.StockCounters;
+
+/**
+ * Controller class for exposing runtime metrics of the application.
+ *
+ * @Controller Indicates that this class is a Spring MVC controller.
+ * @RequestMapping Specifies the base URL path for all endpoints in this controller.
+ */
+@Controller
+@RequestMapping(value = "/metrics")
+public class MetricsController {
+
+    @Autowired
+    private IdGeneration idGeneration;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private InventoryWriteBehind inventoryWriteBehind;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private StockCounters stockCounters;
+
+    /**
+     * Handles a GET request to retrieve the contention metrics of the ID sequences.
+     *
+     * @return The metrics keyed by sequence name.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/sequences", method = RequestMethod.GET)
+    @ResponseBody
+    public Map<String, SequenceMetrics> getSequenceMetrics() {
+        return idGeneration.getMetrics();
+    }
+
+    /**
+     * Handles a GET request to retrieve the hit, miss and eviction counters of the product cache.
+     *
+     * @return The product cache metrics.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/product-cache", method = RequestMethod.GET)
+    @ResponseBody
+    public CacheMetrics getProductCacheMetrics() {
+        return productCache.getMetrics();
+    }
+
+    /**
+     * Handles a GET request to retrieve the size and estimated memory footprint of the barcode index.
+     *
+     * @return The barcode index metrics.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/barcode-index", method = RequestMethod.GET)
+    @ResponseBody
+    public BarcodeIndexMetrics getBarcodeIndexMetrics() {
+        return barcodeIndex.getMetrics();
+    }
+
+    /**
+     * Handles a GET request to retrieve the depth and counters of the inventory write-behind queue.
+     *
+     * @return The write-behind queue metrics.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/inventory-write-behind", method = RequestMethod.GET)
+    @ResponseBody
+    public WriteBehindMetrics getInventoryWriteBehindMetrics() {
+        return inventoryWriteBehind.getMetrics();
+    }
+
+    /**
+     * Handles a GET request to retrieve the counters of the in-memory stock counters, including the
+     * flush lag: the age of the oldest sale not yet written to the database.
+     *
+     * @return The stock counter metrics.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/stock-counters", method = RequestMethod.GET)
+    @ResponseBody
+    public StockCounterMetrics getStockCounterMetrics() {
+        return stockCounters.getMetrics();
+    }
+
+    /**
+     * Handles a GET request to retrieve the hit, miss and eviction counters of the idempotency key store.
+     * A hit is a retried request answered with the stored response.
+     *
+     * @return The idempotency key store metrics.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/idempotency", method = RequestMethod.GET)
+    @ResponseBody
+    public CacheMetrics getIdempotencyMetrics() {
+        return idempotencyFilter.getMetrics();
+    }
+
+    /**
+     * Handles a GET request to retrieve the statistics of the Hibernate second-level and query cache regions.
+     * Statistics are collected only when the application runs with {@code -Daisms.hibernate.statistics=true}.
+     *
+     * @return The statistics keyed by cache region name, or an empty map if statistics are disabled.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/second-level-cache", method = RequestMethod.GET)
+    @ResponseBody
+    public Map<String, CacheRegionStatistics> getSecondLevelCacheMetrics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheRegionStatistics> regions = new TreeMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions; // Nothing is counted
+        }
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            regions.put(region, statistics.getCacheRegionStatistics(region));
+        }
+        return regions;
+    }
+}
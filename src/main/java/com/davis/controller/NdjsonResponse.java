@@ -0,0 +1,50 @@
+package com.davis.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Builds streaming responses in newline-delimited JSON (NDJSON): one JSON document per line.
+ * Rows are serialized as the source produces them, so the response is never held in memory.
+ */
+final class NdjsonResponse {
+
+    private NdjsonResponse() {
+    }
+
+    /**
+     * Creates a streaming NDJSON response.
+     *
+     * @param objectMapper The mapper used to serialize the rows.
+     * @param type         The type of the rows.
+     * @param source       Produces the rows by handing each of them to the consumer it is given.
+     * @return The response entity streaming the rows.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Class<T> type,
+            Consumer<Consumer<T>> source) {
+        // Flushing after every row would send one chunk per row; the generator buffers instead
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                source.accept(row -> {
+                    try {
+                        writer.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -3,16 +3,28 @@ package com.davis.controller;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.davis.dto.BatchResult;
+import com.davis.dto.ChangeSet;
+import com.davis.dto.ProductSummary;
+import com.davis.dto.KeysetPage;
 import com.davis.model.Product;
 import com.davis.model.ProductCategory;
 import com.davis.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 /**
  * Controller class for handling product-related HTTP requests.
@@ -28,45 +40,200 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ObjectMapper objectMapper; // Serializes rows of the streaming exports
+
+    @Autowired
+    private XmlMapper xmlMapper; // Serializes rows of the streaming XML lists
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager; // Tells the conditional GETs which format is sent
+
     /**
      * Handles a GET request to retrieve all products.
+     * The response carries an ETag per format; a request whose If-None-Match matches it is answered
+     * with 304 (Not Modified) without loading the products.
      *
-     * @return A list of all products.
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return A list of all products, or null if the client's copy is still current.
      * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
-     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
      */
-    @ResponseStatus(HttpStatus.OK)
     @RequestMapping(value = "/", method = RequestMethod.GET)
     @ResponseBody
-    public List<Product> getAllproducts() {
+    public List<Product> getAllproducts(WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, productService.getProductsETag())) {
+            return null; // 304 Not Modified
+        }
         return productService.getProducts();
     }
 
+    /**
+     * Handles a GET request to retrieve a read-only summary of all products ({@code ?view=summary}).
+     * The summaries are flat and built directly by a projection query, so they are much cheaper
+     * to produce and serialize than the full product entities.
+     *
+     * @return A list of product summaries.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/", method = RequestMethod.GET, params = {"view=summary", "!limit"})
+    @ResponseBody
+    public List<ProductSummary> getProductSummaries() {
+        return productService.getProductSummaries();
+    }
+
+    /**
+     * Handles a GET request to retrieve one page of products ordered by SKU.
+     * The request is selected by the presence of the {@code limit} parameter; without it
+     * the complete product list is returned.
+     *
+     * @param after The SKU after which the page starts (the {@code nextCursor} of the previous page).
+     * @param limit The maximum number of products on the page.
+     * @return The page of products and the cursor of the next page.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/", method = RequestMethod.GET, params = "limit")
+    @ResponseBody
+    public KeysetPage<Product> getProductPage(@RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        return productService.getProductPage(after, limit);
+    }
+
+    /**
+     * Handles a GET request to retrieve all products as XML, for clients preferring application/xml or text/xml
+     * in their Accept header (browsers listing XML below HTML get the JSON list).
+     * The document is written with StAX while the rows are streamed from the database, so memory
+     * use stays flat regardless of the number of products. The XML document has its own ETag; a request
+     * whose If-None-Match matches it is answered with 304 (Not Modified) before any row is read.
+     *
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return A streaming response with a {@code <products>} root element holding one {@code <product>} element per row,
+     *         or null if the client's copy is still current.
+     */
+    @RequestMapping(value = "/", method = RequestMethod.GET,
+            produces = { MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE })
+    public ResponseEntity<StreamingResponseBody> getProductXml(WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, productService.getProductsETag())) {
+            return null; // 304 Not Modified
+        }
+        return XmlStreamResponse.of(xmlMapper, "products", "product", Product.class, productService::exportProducts);
+    }
+
+    /**
+     * Handles a GET request to retrieve the products added or changed since the client's last synchronization.
+     * The rows are read with an index range scan on the last update date, so a terminal downloads
+     * only what changed instead of the complete list.
+     *
+     * @param since The {@code nextToken} of the previous response; omitted on the first synchronization.
+     * @param limit The maximum number of products to return.
+     * @return The changed products, oldest change first, and the token of the next request.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/changes", method = RequestMethod.GET)
+    @ResponseBody
+    public ChangeSet<Product> getProductChanges(@RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return productService.getProductChanges(since, limit);
+    }
+
+    /**
+     * Handles a GET request to export all products as newline-delimited JSON (one product per line).
+     * Rows are streamed from the database straight to the response, so memory use stays flat
+     * regardless of the number of products.
+     *
+     * @return A streaming response with content type application/x-ndjson.
+     */
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return NdjsonResponse.of(objectMapper, Product.class, productService::exportProducts);
+    }
+
     /**
      * Handles a GET request to retrieve all product categories.
+     * The response carries an ETag per format; a request whose If-None-Match matches it is answered
+     * with 304 (Not Modified) without loading the categories.
      *
-     * @return A list of all product categories.
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return A list of all product categories, or null if the client's copy is still current.
      * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
      */
     @RequestMapping(value = "/category", method = RequestMethod.GET)
     @ResponseBody
-    public List<ProductCategory> getProductCategory() {
+    public List<ProductCategory> getProductCategory(WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, productService.getProductCategoriesETag())) {
+            return null; // 304 Not Modified
+        }
         return productService.getProductCategories();
     }
 
+    /**
+     * Handles a GET request to search products by partial name, description or barcode (typeahead).
+     * Results come from an in-memory index, so the database is never queried.
+     *
+     * @param q     The search text.
+     * @param limit The maximum number of results (default 10).
+     * @return The best matching products, best match first.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     */
+    @RequestMapping(value = "/search", method = RequestMethod.GET)
+    @ResponseBody
+    public List<ProductSummary> searchProducts(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return productService.searchProducts(q, limit);
+    }
+
+    /**
+     * Handles a GET request to retrieve a product by its barcode, as sent by scanners.
+     *
+     * @param code The barcode of the product to retrieve.
+     * @return The product carrying the barcode, or null if not found.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     */
+    @RequestMapping(value = "/barcode/{code}", method = RequestMethod.GET)
+    @ResponseBody
+    public Product getProductByBarcode(@PathVariable String code) {
+        return productService.getProductByBarcode(code);
+    }
+
     /**
      * Handles a GET request to retrieve a specific product by its SKU (Stock Keeping Unit).
+     * The response carries the ETag of the product data and format; a request whose If-None-Match matches it
+     * is answered with 304 (Not Modified) without looking up the product.
      *
-     * @param sku The SKU of the product to retrieve.
-     * @return The product with the specified SKU, or null if not found.
+     * @param sku        The SKU of the product to retrieve.
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return The product with the specified SKU, or null if not found or the client's copy is still current.
      * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
      */
     @RequestMapping(value = "/{sku}", method = RequestMethod.GET)
     @ResponseBody
-    public Product getProduct(@PathVariable String sku) {
+    public Product getProduct(@PathVariable String sku, WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, productService.getProductsETag())) {
+            return null; // 304 Not Modified
+        }
         return productService.getProduct(sku);
     }
 
+    /**
+     * Handles a POST request to add a batch of new products, e.g. a supplier catalogue.
+     * Every product gets its own result, so rejected products can be corrected and resent.
+     *
+     * @param products The products to be added, provided as an array in the request body.
+     * @return The outcome of every product, or 413 (Payload Too Large) for more than
+     *         {@value ProductService#MAX_BATCH_SIZE} products.
+     */
+    @RequestMapping(value = "/batch", method = RequestMethod.POST)
+    public ResponseEntity<BatchResult> addProducts(@RequestBody List<Product> products) {
+        if (products.size() > ProductService.MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(productService.saveProducts(products));
+    }
+
     /**
      * Handles a POST request to add a new product.
      *
@@ -3,15 +3,25 @@ package com.davis.controller;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.davis.dto.ChangeSet;
+import com.davis.dto.SupplierSummary;
 import com.davis.model.Supplier;
 import com.davis.service.SupplierService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 /**
  * Controller class for handling supplier-related HTTP requests.
@@ -27,30 +37,116 @@ public class SupplierController {
     @Autowired
     private SupplierService supplierService;
 
+    @Autowired
+    private ObjectMapper objectMapper; // Serializes rows of the streaming exports
+
+    @Autowired
+    private XmlMapper xmlMapper; // Serializes rows of the streaming XML lists
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager; // Tells the conditional GETs which format is sent
+
     /**
      * Handles a GET request to retrieve all suppliers.
+     * The response carries an ETag per format; a request whose If-None-Match matches it is answered
+     * with 304 (Not Modified) without loading the suppliers.
      *
-     * @return A list of all suppliers.
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return A list of all suppliers, or null if the client's copy is still current.
      * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
-     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
      */
-    @ResponseStatus(HttpStatus.OK)
     @RequestMapping(value = "/", method = RequestMethod.GET)
     @ResponseBody
-    public List<Supplier> getSupplies() {
+    public List<Supplier> getSupplies(WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, supplierService.getSuppliesETag())) {
+            return null; // 304 Not Modified
+        }
         return supplierService.getSupplies();
     }
 
+    /**
+     * Handles a GET request to retrieve a read-only summary of all suppliers ({@code ?view=summary}).
+     * The summaries are flat and built directly by a projection query, so they are much cheaper
+     * to produce and serialize than the full supplier entities.
+     *
+     * @return A list of supplier summaries.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/", method = RequestMethod.GET, params = "view=summary")
+    @ResponseBody
+    public List<SupplierSummary> getSupplierSummaries() {
+        return supplierService.getSupplierSummaries();
+    }
+
+    /**
+     * Handles a GET request to retrieve all suppliers as XML, for clients preferring application/xml or text/xml
+     * in their Accept header (browsers listing XML below HTML get the JSON list).
+     * The document is written with StAX while the rows are streamed from the database, so memory
+     * use stays flat regardless of the number of suppliers. The XML document has its own ETag; a request
+     * whose If-None-Match matches it is answered with 304 (Not Modified) before any row is read.
+     *
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return A streaming response with a {@code <suppliers>} root element holding one {@code <supplier>} element per row,
+     *         or null if the client's copy is still current.
+     */
+    @RequestMapping(value = "/", method = RequestMethod.GET,
+            produces = { MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE })
+    public ResponseEntity<StreamingResponseBody> getSupplierXml(WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, supplierService.getSuppliesETag())) {
+            return null; // 304 Not Modified
+        }
+        return XmlStreamResponse.of(xmlMapper, "suppliers", "supplier", Supplier.class, supplierService::exportSupplies);
+    }
+
+    /**
+     * Handles a GET request to retrieve the suppliers added or changed since the client's last synchronization.
+     * The rows are read with an index range scan on the last update date, so a terminal downloads
+     * only what changed instead of the complete list.
+     *
+     * @param since The {@code nextToken} of the previous response; omitted on the first synchronization.
+     * @param limit The maximum number of suppliers to return.
+     * @return The changed suppliers, oldest change first, and the token of the next request.
+     * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
+     * @ResponseStatus(HttpStatus.OK) Specifies that the HTTP response status will be 200 (OK) if successful.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(value = "/changes", method = RequestMethod.GET)
+    @ResponseBody
+    public ChangeSet<Supplier> getSupplierChanges(@RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return supplierService.getSupplierChanges(since, limit);
+    }
+
+    /**
+     * Handles a GET request to export all suppliers as newline-delimited JSON (one supplier per line).
+     * Rows are streamed from the database straight to the response, so memory use stays flat
+     * regardless of the number of suppliers.
+     *
+     * @return A streaming response with content type application/x-ndjson.
+     */
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> exportSupplies() {
+        return NdjsonResponse.of(objectMapper, Supplier.class, supplierService::exportSupplies);
+    }
+
     /**
      * Handles a GET request to retrieve a specific supplier by their unique identifier.
+     * The response carries the ETag of the supplier data and format; a request whose If-None-Match matches it
+     * is answered with 304 (Not Modified) without looking up the supplier.
      *
-     * @param id The unique identifier of the supplier to retrieve.
-     * @return The supplier with the specified ID, or null if not found.
+     * @param id         The unique identifier of the supplier to retrieve.
+     * @param webRequest The current request, used for the conditional GET check.
+     * @return The supplier with the specified ID, or null if not found or the client's copy is still current.
      * @ResponseBody Indicates that the return value will be serialized directly into the HTTP response body.
      */
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
     @ResponseBody
-    public Supplier getSupplier(@PathVariable String id) {
+    public Supplier getSupplier(@PathVariable String id, WebRequest webRequest) {
+        if (ConditionalGet.checkNotModified(webRequest, contentNegotiationManager, supplierService.getSuppliesETag())) {
+            return null; // 304 Not Modified
+        }
         return supplierService.getSupplier(id);
     }
 
@@ -0,0 +1,61 @@
+package com.davis.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+/**
+ * Builds streaming XML responses: a root element holding one element per row.
+ * Elements are written with StAX as the source produces the rows, so the document is never
+ * held in memory, whatever the number of rows.
+ */
+final class XmlStreamResponse {
+
+    private XmlStreamResponse() {
+    }
+
+    /**
+     * Creates a streaming XML response.
+     *
+     * @param xmlMapper   The mapper used to serialize the rows.
+     * @param rootName    The name of the root element (e.g., "products").
+     * @param elementName The name of the element of each row (e.g., "product").
+     * @param type        The type of the rows.
+     * @param source      Produces the rows by handing each of them to the consumer it is given.
+     * @return The response entity streaming the document.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> of(XmlMapper xmlMapper, String rootName, String elementName,
+            Class<T> type, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = xmlMapper.writerFor(type).withRootName(elementName);
+        StreamingResponseBody body = out -> {
+            try {
+                XMLStreamWriter xmlWriter = xmlMapper.getFactory().getXMLOutputFactory()
+                        .createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+                xmlWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                xmlWriter.writeStartElement(rootName);
+                source.accept(row -> {
+                    try {
+                        // Each row is written as a complete element of the open document
+                        writer.writeValue(xmlMapper.getFactory().createGenerator(xmlWriter), row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                xmlWriter.writeEndElement();
+                xmlWriter.writeEndDocument();
+                xmlWriter.close(); // Flushes the writer; the response stream itself stays open
+            } catch (XMLStreamException e) {
+                throw new IOException("Could not write XML", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_XML).body(body);
+    }
+}
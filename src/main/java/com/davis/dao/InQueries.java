@@ -0,0 +1,27 @@
+package com.davis.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helper for DAO methods that look rows up by a list of keys with an IN query.
+ * The keys are split into chunks, so one statement never binds more parameters than SQL Server allows.
+ */
+final class InQueries {
+
+	static final int MAX_PARAMETERS = 1000; // SQL Server accepts at most 2100 parameters per statement
+
+	private InQueries() {
+	}
+
+	static <K, T> List<T> inChunks(Collection<K> keys, Function<List<K>, List<T>> query) {
+		List<K> keyList = new ArrayList<>(keys);
+		List<T> results = new ArrayList<>(keyList.size());
+		for (int from = 0; from < keyList.size(); from += MAX_PARAMETERS) {
+			results.addAll(query.apply(keyList.subList(from, Math.min(from + MAX_PARAMETERS, keyList.size()))));
+		}
+		return results;
+	}
+}
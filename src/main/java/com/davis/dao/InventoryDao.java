@@ -1,18 +1,36 @@
 package com.davis.dao;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.davis.dto.InventorySummary;
+import com.davis.dto.ReorderAlert;
+import com.davis.model.ChangeTimestamps;
 import com.davis.model.Inventory;
+import com.davis.model.Product;
+import com.davis.model.Status;
+import com.davis.model.Supplier;
 
 @Repository
 @Transactional
 public class InventoryDao {
+	static final int BATCH_SIZE = 50; // Matches hibernate.jdbc.batch_size
 	@PersistenceContext
 	private EntityManager entityManager;
 	
@@ -20,11 +38,145 @@ public class InventoryDao {
 		entityManager.persist(inventory);
 		return inventory;
 	}
+	// One transaction, inserted in JDBC batches; product and supplier are referred to by key and must exist
+	public List<Inventory> addInventories(List<Inventory> items) {
+		for (int i = 0; i < items.size(); i++) {
+			Inventory item = items.get(i);
+			if (item.getProduct() != null) {
+				item.setProduct(entityManager.getReference(Product.class, item.getProduct().getProductSKU()));
+			}
+			if (item.getSupplier() != null) {
+				item.setSupplier(entityManager.getReference(Supplier.class, item.getSupplier().getSupplierId()));
+			}
+			entityManager.persist(item);
+			if ((i + 1) % BATCH_SIZE == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return items;
+	}
 	@Transactional(readOnly=true)
 	public List<Inventory> getInventory(){
 		return entityManager.createNamedQuery("Inventory.viewInventory", Inventory.class)
 		.getResultList();
 		
 	}
+	// Change feed: at most limit rows changed after (since, after) and no later than until
+	@Transactional(readOnly=true)
+	public List<Inventory> getChangesSince(LocalDateTime since, String after, LocalDateTime until, int limit){
+		return entityManager.createNamedQuery("Inventory.getChangesSince", Inventory.class)
+				.setParameter("since", since).setParameter("after", after).setParameter("until", until)
+				.setMaxResults(limit).getResultList();
+	}
+	// Returns the number of rows changed: 0 if the item does not exist or has too few unreserved units
+	public int reserveUnits(String id, int units){
+		return updateUnits("Inventory.reserveUnits", id, units);
+	}
+	// Returns the number of rows changed: 0 if the item does not exist or has fewer units reserved
+	public int releaseUnits(String id, int units){
+		return updateUnits("Inventory.releaseUnits", id, units);
+	}
+	// Returns the number of rows changed: 0 if the item does not exist or has too few unreserved units
+	public int sellUnits(String id, int units){
+		return entityManager.createNamedQuery("Inventory.sellUnits")
+				.setParameter("id", id).setParameter("units", units).setParameter("now", ChangeTimestamps.now())
+				.setParameter("outOfStock", Status.OUT_OF_STOCK.toString().toUpperCase())
+				.executeUpdate();
+	}
+	// Applies sales recorded in memory as one JDBC batch; they were checked against the stock level when recorded.
+	// Returns the IDs that matched no row
+	public Set<String> subtractUnits(Map<String, Long> unitsSold){
+		Set<String> unmatched = new HashSet<>();
+		Timestamp now = Timestamp.valueOf(ChangeTimestamps.now());
+		String outOfStock = Status.OUT_OF_STOCK.toString().toUpperCase();
+		entityManager.unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement update = connection.prepareStatement("UPDATE Inventory SET QuantityAvailable = QuantityAvailable - ?, "
+					+ "status = CASE WHEN QuantityAvailable - ? < 1 THEN ? ELSE status END, LastUpdatedOn = ? WHERE StockId = ?")) {
+				List<String> batch = new ArrayList<>(BATCH_SIZE);
+				for (Map.Entry<String, Long> sold : unitsSold.entrySet()) {
+					update.setLong(1, sold.getValue());
+					update.setLong(2, sold.getValue());
+					update.setString(3, outOfStock);
+					update.setTimestamp(4, now);
+					update.setString(5, sold.getKey());
+					update.addBatch();
+					batch.add(sold.getKey());
+					if (batch.size() == BATCH_SIZE) {
+						collectUnmatched(update.executeBatch(), batch, unmatched);
+					}
+				}
+				if (!batch.isEmpty()) {
+					collectUnmatched(update.executeBatch(), batch, unmatched);
+				}
+			}
+		});
+		return unmatched;
+	}
+	// A count of 0 means no row; drivers may also report SUCCESS_NO_INFO, which is taken as a match
+	private static void collectUnmatched(int[] counts, List<String> batch, Set<String> unmatched){
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0) {
+				unmatched.add(batch.get(i));
+			}
+		}
+		batch.clear();
+	}
+	// Last journal segment applied, kept in ID_Gen so it commits together with the sales of the segment
+	@Transactional(readOnly=true)
+	public Long getJournalMarker(String name){
+		List<?> value = entityManager.createNativeQuery("SELECT idValue FROM ID_Gen WHERE idName = :name")
+				.setParameter("name", name).getResultList();
+		return value.isEmpty() ? null : ((Number) value.get(0)).longValue();
+	}
+	public int setJournalMarker(String name, long segment){
+		return entityManager.createNativeQuery("UPDATE ID_Gen SET idValue = :segment WHERE idName = :name AND idValue < :segment")
+				.setParameter("segment", segment).setParameter("name", name).executeUpdate();
+	}
+	// Bulk updates skip @PreUpdate, so the last update date is set by the statement
+	private int updateUnits(String query, String id, int units){
+		return entityManager.createNamedQuery(query)
+				.setParameter("id", id).setParameter("units", units).setParameter("now", ChangeTimestamps.now())
+				.executeUpdate();
+	}
+	@Transactional(readOnly=true)
+	public InventorySummary getInventorySummary(String id){
+		List<InventorySummary> found = entityManager.createNamedQuery("Inventory.getInventorySummary", InventorySummary.class)
+				.setParameter("id", id).getResultList();
+		return found.isEmpty() ? null : found.get(0);
+	}
+	@Transactional(readOnly=true)
+	public List<InventorySummary> getInventorySummaries(){
+		return entityManager.createNamedQuery("Inventory.getInventorySummaries", InventorySummary.class)
+		.getResultList();
+	}
+	@Transactional(readOnly=true)
+	public void streamDueReorderAlerts(Consumer<? super ReorderAlert> consumer){
+		StreamingQueries.forEach(entityManager,
+				entityManager.createNamedQuery("Inventory.getDueReorderAlerts", ReorderAlert.class), consumer);
+	}
+	// Stock levels of the given items, due or not; primary key lookups only
+	@Transactional(readOnly=true)
+	public List<ReorderAlert> getReorderAlerts(Collection<String> ids){
+		return InQueries.inChunks(ids, chunk -> entityManager.createNamedQuery("Inventory.getReorderAlertsById", ReorderAlert.class)
+				.setParameter("ids", chunk).getResultList());
+	}
+	// Units in stock and not reserved per item ID; missing items are left out
+	@Transactional(readOnly=true)
+	public Map<String, Long> getSellableUnits(Collection<String> ids){
+		Map<String, Long> sellable = new HashMap<>();
+		for (Object[] row : InQueries.inChunks(ids, chunk -> entityManager.createNamedQuery("Inventory.getSellableUnits", Object[].class)
+				.setParameter("ids", chunk).getResultList())) {
+			sellable.put((String) row[0], ((Number) row[1]).longValue());
+		}
+		return sellable;
+	}
+	@Transactional(readOnly=true)
+	public void streamInventory(Consumer<? super Inventory> consumer){
+		StreamingQueries.forEach(entityManager,
+				entityManager.createNamedQuery("Inventory.viewInventory", Inventory.class), consumer);
+	}
 
 }
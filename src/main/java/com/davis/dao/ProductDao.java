@@ -1,18 +1,25 @@
 package com.davis.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.davis.dto.ProductSummary;
 import com.davis.model.Product;
 import com.davis.model.ProductCategory;
 @Repository
 @Transactional
 public class ProductDao {
+	static final int BATCH_SIZE = 50; // Matches hibernate.jdbc.batch_size
 	@PersistenceContext
 	private EntityManager entityManager;
 	
@@ -20,10 +27,71 @@ public class ProductDao {
 		entityManager.persist(product);
 		return product;
 	}
+	// One transaction; inserts go out in JDBC batches and the flushed products are detached after each batch.
+	// Categories and suppliers stay managed, otherwise Hibernate selects them again for every batch
+	public List<Product> addProducts(List<Product> products) {
+		int flushed = 0;
+		for (int i = 0; i < products.size(); i++) {
+			entityManager.persist(products.get(i));
+			if ((i + 1) % BATCH_SIZE == 0) {
+				entityManager.flush();
+				detach(products, flushed, i + 1);
+				flushed = i + 1;
+			}
+		}
+		entityManager.flush();
+		detach(products, flushed, products.size());
+		return products;
+	}
+	private void detach(List<Product> products, int from, int to) {
+		for (int i = from; i < to; i++) {
+			entityManager.detach(products.get(i));
+		}
+	}
 	@Transactional(readOnly=true)
 	public List<Product> getProducts(){
 		return entityManager.createNamedQuery("Product.getProducts",Product.class).getResultList();
 	}
+	// Keyset page: seeks on the primary key instead of skipping rows, so every page costs the same
+	@Transactional(readOnly=true)
+	public List<Product> getProductsAfter(String after, int limit){
+		TypedQuery<Product> query = after == null
+				? entityManager.createNamedQuery("Product.getFirstProducts",Product.class)
+				: entityManager.createNamedQuery("Product.getProductsAfter",Product.class).setParameter("after", after);
+		return query.setMaxResults(limit).getResultList();
+	}
+	// Change feed: at most limit rows changed after (since, after) and no later than until
+	@Transactional(readOnly=true)
+	public List<Product> getChangesSince(LocalDateTime since, String after, LocalDateTime until, int limit){
+		return entityManager.createNamedQuery("Product.getChangesSince", Product.class)
+				.setParameter("since", since).setParameter("after", after).setParameter("until", until)
+				.setMaxResults(limit).getResultList();
+	}
+	@Transactional(readOnly=true)
+	public List<ProductSummary> getProductSummaries(){
+		return entityManager.createNamedQuery("Product.getProductSummaries",ProductSummary.class).getResultList();
+	}
+	@Transactional(readOnly=true)
+	public void streamProductSummaries(Consumer<? super ProductSummary> consumer){
+		StreamingQueries.forEach(entityManager,
+				entityManager.createNamedQuery("Product.getProductSummaries",ProductSummary.class), consumer);
+	}
+	@Transactional(readOnly=true)
+	public void streamBarcodes(BiConsumer<String, String> consumer){
+		StreamingQueries.forEach(entityManager,
+				entityManager.createNamedQuery("Product.getBarcodes",Object[].class),
+				row -> consumer.accept((String) row[0], (String) row[1]));
+	}
+	@Transactional(readOnly=true)
+	public void streamProducts(Consumer<? super Product> consumer){
+		StreamingQueries.forEach(entityManager,
+				entityManager.createNamedQuery("Product.getProducts",Product.class), consumer);
+	}
+	@Transactional(readOnly=true)
+	public List<String> getExistingSkus(Collection<String> skus){
+		return InQueries.inChunks(skus, chunk -> entityManager.createNamedQuery("Product.getExistingSkus",String.class)
+				.setParameter("skus", chunk).getResultList());
+	}
 	@Transactional(readOnly=true)
 	public Product getProduct(String sku) {
 		return entityManager.find(Product.class, sku);
@@ -33,6 +101,11 @@ public class ProductDao {
 		return entityManager.createNamedQuery("ProductCategory.getCategories",ProductCategory.class)
 		.getResultList();
 	}
+	@Transactional(readOnly=true)
+	public List<ProductCategory> getProductCategories(Collection<String> ids){
+		return InQueries.inChunks(ids, chunk -> entityManager.createNamedQuery("ProductCategory.getCategoriesById",ProductCategory.class)
+				.setParameter("ids", chunk).getResultList());
+	}
 	public ProductCategory addProductCategory(ProductCategory category) {
 		 entityManager.persist(category);
 		 return category;
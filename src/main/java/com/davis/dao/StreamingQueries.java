@@ -0,0 +1,39 @@
+package com.davis.dao;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.annotations.QueryHints;
+
+/**
+ * Helper for DAO methods that hand rows to a consumer one at a time instead of building a list.
+ * Rows are read from a forward-only JDBC cursor and the persistence context is cleared at a fixed
+ * interval, so memory use does not grow with the size of the table.
+ */
+final class StreamingQueries {
+
+	static final int FETCH_SIZE = 500; // Rows fetched per JDBC round trip
+	static final int CLEAR_INTERVAL = 500; // Rows after which the persistence context is cleared
+
+	private StreamingQueries() {
+	}
+
+	static <T> void forEach(EntityManager entityManager, TypedQuery<T> query, Consumer<? super T> consumer) {
+		query.setHint(QueryHints.FETCH_SIZE, FETCH_SIZE);
+		query.setHint(QueryHints.READ_ONLY, true);
+		try (Stream<T> rows = query.getResultStream()) {
+			Iterator<T> iterator = rows.iterator();
+			int count = 0;
+			while (iterator.hasNext()) {
+				consumer.accept(iterator.next());
+				if (++count % CLEAR_INTERVAL == 0) {
+					entityManager.clear(); // Detach the rows handed out so far
+				}
+			}
+		}
+	}
+}
@@ -1,13 +1,18 @@
 package com.davis.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.davis.dto.SupplierSummary;
 import com.davis.model.Supplier;
 
 @Repository
@@ -24,6 +29,30 @@ public class SupplierDao {
 		return entityManager.createNamedQuery("Supplier.findAll",Supplier.class)
 		.getResultList();
 	}
+	@Transactional(readOnly=true)
+	public List<Supplier> getSupplies(Collection<String> ids){
+		return InQueries.inChunks(ids, chunk -> entityManager.createNamedQuery("Supplier.findByIds",Supplier.class)
+				.setParameter("ids", chunk).getResultList());
+	}
+	// Change feed: at most limit rows changed after (since, after) and no later than until
+	@Transactional(readOnly=true)
+	public List<Supplier> getChangesSince(LocalDateTime since, String after, LocalDateTime until, int limit){
+		return entityManager.createNamedQuery("Supplier.getChangesSince", Supplier.class)
+				.setParameter("since", since).setParameter("after", after).setParameter("until", until)
+				.setMaxResults(limit).getResultList();
+	}
+	@Transactional(readOnly=true)
+	public List<SupplierSummary> getSupplierSummaries(){
+		return entityManager.createNamedQuery("Supplier.getSupplierSummaries",SupplierSummary.class)
+		.getResultList();
+	}
+	@Transactional(readOnly=true)
+	public void streamSupplies(Consumer<? super Supplier> consumer){
+		StreamingQueries.forEach(entityManager,
+				entityManager.createNamedQuery("Supplier.findAll",Supplier.class), consumer);
+	}
+	// No transaction of its own: a hit in the second-level cache then needs no connection
+	@Transactional(readOnly=true, propagation=Propagation.SUPPORTS)
 	public Supplier getSupplier(String id) {
 		return entityManager.find(Supplier.class, id);
 	}
@@ -0,0 +1,60 @@
+package com.davis.dto;
+
+/**
+ * Size and estimated memory footprint of the barcode index.
+ */
+public class BarcodeIndexMetrics {
+
+    private final int numericBarcodes; // GTIN barcodes stored in the primitive hash table
+    private final int otherBarcodes; // Other barcodes stored in the fallback map
+    private final int capacity; // Slots of the hash table
+    private final long estimatedBytes; // Estimated size of the hash table and the SKU strings
+
+    /**
+     * @param numericBarcodes The number of GTIN barcodes stored in the primitive hash table.
+     * @param otherBarcodes   The number of other barcodes (not GTINs) stored in the fallback map.
+     * @param capacity        The number of slots of the hash table.
+     * @param estimatedBytes  The estimated size of the hash table and the SKU strings it references.
+     */
+    public BarcodeIndexMetrics(int numericBarcodes, int otherBarcodes, int capacity, long estimatedBytes) {
+        this.numericBarcodes = numericBarcodes;
+        this.otherBarcodes = otherBarcodes;
+        this.capacity = capacity;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * @return The number of GTIN barcodes stored in the primitive hash table.
+     */
+    public int getNumericBarcodes() {
+        return numericBarcodes;
+    }
+
+    /**
+     * @return The number of other barcodes (not GTINs) stored in the fallback map.
+     */
+    public int getOtherBarcodes() {
+        return otherBarcodes;
+    }
+
+    /**
+     * @return The number of slots of the hash table.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The estimated size of the hash table and the SKU strings it references, in bytes.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * @return The estimated footprint per million GTIN barcodes at the current fill level, in bytes.
+     */
+    public long getEstimatedBytesPerMillion() {
+        return numericBarcodes == 0 ? 0 : estimatedBytes * 1_000_000L / numericBarcodes;
+    }
+}
@@ -0,0 +1,63 @@
+package com.davis.dto;
+
+/**
+ * Outcome of one item of a batch request: the ID it was saved under, or the reason it was rejected.
+ */
+public class BatchItemResult {
+
+    private final int index; // Position of the item in the request, starting at 0
+    private final String id; // ID the item was saved under, or null if it was rejected
+    private final String error; // Reason the item was rejected, or null if it was saved
+
+    private BatchItemResult(int index, String id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    /**
+     * @param index The position of the item in the request.
+     * @param id    The ID the item was saved under.
+     * @return The result of a saved item.
+     */
+    public static BatchItemResult saved(int index, String id) {
+        return new BatchItemResult(index, id, null);
+    }
+
+    /**
+     * @param index The position of the item in the request.
+     * @param error The reason the item was rejected.
+     * @return The result of a rejected item.
+     */
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+
+    /**
+     * @return The position of the item in the request, starting at 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The ID the item was saved under, or null if it was rejected.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The reason the item was rejected, or null if it was saved.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return True if the item was saved.
+     */
+    public boolean isSaved() {
+        return error == null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.davis.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch request: counts of saved and rejected items and the outcome of every item,
+ * in request order.
+ */
+public class BatchResult {
+
+    private final int saved; // Number of items saved
+    private final int failed; // Number of items rejected
+    private final long elapsedMillis; // Time taken to process the batch
+    private final List<BatchItemResult> items; // Outcome of every item, in request order
+
+    /**
+     * @param items         The outcome of every item, in request order.
+     * @param elapsedMillis The time taken to process the batch, in milliseconds.
+     */
+    public BatchResult(List<BatchItemResult> items, long elapsedMillis) {
+        int savedCount = 0;
+        for (BatchItemResult item : items) {
+            if (item.isSaved()) {
+                savedCount++;
+            }
+        }
+        this.saved = savedCount;
+        this.failed = items.size() - savedCount;
+        this.elapsedMillis = elapsedMillis;
+        this.items = items;
+    }
+
+    /**
+     * @return The number of items saved.
+     */
+    public int getSaved() {
+        return saved;
+    }
+
+    /**
+     * @return The number of items rejected.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return The time taken to process the batch, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The outcome of every item, in request order.
+     */
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+}
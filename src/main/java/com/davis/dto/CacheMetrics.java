@@ -0,0 +1,62 @@
+package com.davis.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Snapshot of the counters of an in-process cache.
+ */
+public class CacheMetrics {
+
+    private final long size; // Approximate number of entries
+    private final long hitCount; // Lookups answered from the cache
+    private final long missCount; // Lookups that had to load the value
+    private final long evictionCount; // Entries removed because of size or expiry
+    private final double hitRate; // Share of lookups answered from the cache
+
+    /**
+     * @param size  The approximate number of entries in the cache.
+     * @param stats The statistics recorded by the cache.
+     */
+    public CacheMetrics(long size, CacheStats stats) {
+        this.size = size;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.evictionCount = stats.evictionCount();
+        this.hitRate = stats.hitRate();
+    }
+
+    /**
+     * @return The approximate number of entries in the cache.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of lookups that had to load the value.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of entries removed because of size or expiry.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The share of lookups answered from the cache (1.0 when there were no lookups).
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+}
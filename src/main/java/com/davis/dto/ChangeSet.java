@@ -0,0 +1,49 @@
+package com.davis.dto;
+
+import java.util.List;
+
+/**
+ * Rows changed since a client's last synchronization, in the order they were changed.
+ * The client stores {@link #getNextToken()} and passes it as the {@code since} parameter of
+ * its next request; if {@link #isHasMore()} is true, it can request the next batch right away.
+ *
+ * @param <T> The type of the changed rows.
+ */
+public class ChangeSet<T> {
+
+    private final List<T> items; // Changed rows, oldest change first
+    private final String nextToken; // Position after the last row; never null
+    private final boolean hasMore; // Whether more settled changes follow
+
+    /**
+     * @param items     The changed rows, oldest change first.
+     * @param nextToken The token of the next request.
+     * @param hasMore   Whether more changes can be fetched right away.
+     */
+    public ChangeSet(List<T> items, String nextToken, boolean hasMore) {
+        this.items = items;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * @return The changed rows, oldest change first.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The token to pass as {@code since} on the next request.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * @return Whether more changes can be fetched right away.
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
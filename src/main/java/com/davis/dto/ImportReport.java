@@ -0,0 +1,85 @@
+package com.davis.dto;
+
+import java.util.List;
+
+/**
+ * Result of a file import: how many rows were read and imported, how fast, and which rows
+ * were rejected. Only the first rejected rows are listed; {@link #getRowsFailed()} counts all of them.
+ */
+public class ImportReport {
+
+    private final int rowsRead; // Data rows read from the file
+    private final int rowsImported; // Rows saved
+    private final int rowsFailed; // Rows rejected
+    private final long elapsedMillis; // Time taken by the import
+    private final List<ImportRowError> errors; // First rejected rows, by line
+    private final boolean completed; // False if the file could not be read to the end
+
+    /**
+     * @param rowsRead      The number of data rows read from the file.
+     * @param rowsImported  The number of rows saved.
+     * @param rowsFailed    The number of rows rejected.
+     * @param elapsedMillis The time taken by the import, in milliseconds.
+     * @param errors        The first rejected rows, by line.
+     * @param completed     Whether the file was read to the end.
+     */
+    public ImportReport(int rowsRead, int rowsImported, int rowsFailed, long elapsedMillis,
+            List<ImportRowError> errors, boolean completed) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsFailed = rowsFailed;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+        this.completed = completed;
+    }
+
+    /**
+     * @return The number of data rows read from the file.
+     */
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * @return The number of rows saved.
+     */
+    public int getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * @return The number of rows rejected.
+     */
+    public int getRowsFailed() {
+        return rowsFailed;
+    }
+
+    /**
+     * @return The time taken by the import, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The number of rows read per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * @return The first rejected rows, by line.
+     */
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return False if the file could not be read to the end (e.g. malformed CSV); rows before
+     *         the failure are still imported.
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+}
@@ -0,0 +1,33 @@
+package com.davis.dto;
+
+/**
+ * A line of an imported file that was rejected, with the reason.
+ */
+public class ImportRowError {
+
+    private final int line; // Line of the file the row starts on
+    private final String error; // Reason the row was rejected
+
+    /**
+     * @param line  The line of the file the row starts on.
+     * @param error The reason the row was rejected.
+     */
+    public ImportRowError(int line, String error) {
+        this.line = line;
+        this.error = error;
+    }
+
+    /**
+     * @return The line of the file the row starts on.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return The reason the row was rejected.
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,117 @@
+package com.davis.dto;
+
+/**
+ * Read-only view of an inventory item for list endpoints.
+ * Built directly by a projection query, so no managed entity, dirty-checking snapshot or
+ * nested product/supplier object is created per row.
+ */
+public class InventorySummary {
+
+    private final String inventoryId; // Unique identifier for the inventory item
+    private final String productSKU; // SKU of the product
+    private final String productName; // Name of the product
+    private final String supplierId; // Identifier of the supplier
+    private final String supplierName; // Name of the supplier
+    private final int unitsAvailable; // Quantity available in stock
+    private final int reservedUnits; // Quantity reserved (not available for sale)
+    private final int reOrderPoint; // Reorder point for the product
+    private final double unitSellingPrice; // Price at which the product is sold
+    private final String expiryDate; // Expiry date of the product
+    private final String status; // Status of the inventory
+
+    /**
+     * Creates the summary; used by the JPQL constructor expression of the projection query.
+     */
+    public InventorySummary(String inventoryId, String productSKU, String productName, String supplierId,
+            String supplierName, int unitsAvailable, int reservedUnits, int reOrderPoint,
+            double unitSellingPrice, String expiryDate, String status) {
+        this.inventoryId = inventoryId;
+        this.productSKU = productSKU;
+        this.productName = productName;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.unitsAvailable = unitsAvailable;
+        this.reservedUnits = reservedUnits;
+        this.reOrderPoint = reOrderPoint;
+        this.unitSellingPrice = unitSellingPrice;
+        this.expiryDate = expiryDate;
+        this.status = status;
+    }
+
+    /**
+     * @return The inventory ID.
+     */
+    public String getInventoryId() {
+        return inventoryId;
+    }
+
+    /**
+     * @return The SKU of the product, or null.
+     */
+    public String getProductSKU() {
+        return productSKU;
+    }
+
+    /**
+     * @return The name of the product, or null.
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * @return The identifier of the supplier, or null.
+     */
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    /**
+     * @return The name of the supplier, or null.
+     */
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    /**
+     * @return The units available.
+     */
+    public int getUnitsAvailable() {
+        return unitsAvailable;
+    }
+
+    /**
+     * @return The reserved units.
+     */
+    public int getReservedUnits() {
+        return reservedUnits;
+    }
+
+    /**
+     * @return The reorder point.
+     */
+    public int getReOrderPoint() {
+        return reOrderPoint;
+    }
+
+    /**
+     * @return The unit selling price.
+     */
+    public double getUnitSellingPrice() {
+        return unitSellingPrice;
+    }
+
+    /**
+     * @return The expiry date.
+     */
+    public String getExpiryDate() {
+        return expiryDate;
+    }
+
+    /**
+     * @return The status of the inventory.
+     */
+    public String getStatus() {
+        return status;
+    }
+}
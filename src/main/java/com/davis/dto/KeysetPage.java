@@ -0,0 +1,39 @@
+package com.davis.dto;
+
+import java.util.List;
+
+/**
+ * A page of results of a keyset-paginated listing.
+ * The next page is requested by passing {@link #getNextCursor()} as the {@code after} parameter;
+ * a null cursor means that this is the last page.
+ *
+ * @param <T> The type of the items on the page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items; // Items of this page, in key order
+    private final String nextCursor; // Key of the last item, or null on the last page
+
+    /**
+     * @param items      The items of this page, in key order.
+     * @param nextCursor The cursor of the next page, or null if this is the last page.
+     */
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return The items of this page, in key order.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor of the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
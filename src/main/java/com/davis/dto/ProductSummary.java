@@ -0,0 +1,137 @@
+package com.davis.dto;
+
+import com.davis.model.Product;
+import com.davis.model.ProductCategory;
+import com.davis.model.Supplier;
+
+/**
+ * Read-only view of a product for list endpoints.
+ * Built directly by a projection query, so no managed entity, dirty-checking snapshot or
+ * nested supplier/category object is created per row.
+ */
+public class ProductSummary {
+
+    private final String productSKU; // Unique identifier for the product
+    private final String barCode; // Barcode of the product
+    private final String product; // Name of the product
+    private final String description; // Description of the product
+    private final String supplierId; // Identifier of the supplier
+    private final String supplierName; // Name of the supplier
+    private final String categoryId; // Identifier of the category
+    private final String categoryName; // Name of the category
+    private final Double productWeight; // Weight of the product
+    private final String unitOfmeasurement; // Unit of measurement for the product weight
+    private final String status; // Status of the product
+
+    /**
+     * Creates the summary; used by the JPQL constructor expression of the projection query.
+     */
+    public ProductSummary(String productSKU, String barCode, String product, String description,
+            String supplierId, String supplierName, String categoryId, String categoryName,
+            Double productWeight, String unitOfmeasurement, String status) {
+        this.productSKU = productSKU;
+        this.barCode = barCode;
+        this.product = product;
+        this.description = description;
+        this.supplierId = supplierId;
+        this.supplierName = supplierName;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.productWeight = productWeight;
+        this.unitOfmeasurement = unitOfmeasurement;
+        this.status = status;
+    }
+
+    /**
+     * Creates the summary of a product entity.
+     *
+     * @param product The product.
+     * @return The summary of the product.
+     */
+    public static ProductSummary from(Product product) {
+        Supplier supplier = product.getSupplier();
+        ProductCategory category = product.getCategory();
+        return new ProductSummary(product.getProductSKU(), product.getBarCode(), product.getProduct(),
+                product.getDescription(), supplier != null ? supplier.getSupplierId() : null,
+                supplier != null ? supplier.getName() : null, category != null ? category.getId() : null,
+                category != null ? category.getName() : null, product.getproductWeight(),
+                product.getUnitOfmeasurement(), product.getStatus());
+    }
+
+    /**
+     * @return The product SKU.
+     */
+    public String getProductSKU() {
+        return productSKU;
+    }
+
+    /**
+     * @return The barcode of the product.
+     */
+    public String getBarCode() {
+        return barCode;
+    }
+
+    /**
+     * @return The name of the product.
+     */
+    public String getProduct() {
+        return product;
+    }
+
+    /**
+     * @return The description of the product.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return The identifier of the supplier, or null.
+     */
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    /**
+     * @return The name of the supplier, or null.
+     */
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    /**
+     * @return The identifier of the category, or null.
+     */
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * @return The name of the category, or null.
+     */
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    /**
+     * @return The weight of the product.
+     */
+    public Double getProductWeight() {
+        return productWeight;
+    }
+
+    /**
+     * @return The unit of measurement for the product weight.
+     */
+    public String getUnitOfmeasurement() {
+        return unitOfmeasurement;
+    }
+
+    /**
+     * @return The status of the product.
+     */
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,44 @@
+package com.davis.dto;
+
+/**
+ * Acknowledgement of a write accepted for later processing (202 Accepted), with the ID the
+ * item will be stored under and what the client may rely on.
+ */
+public class QueuedWrite {
+
+    private final String id; // ID the item will be stored under
+    private final int queueDepth; // Items waiting to be written, including this one
+    private final String durability; // What the acknowledgement guarantees
+
+    /**
+     * @param id         The ID the item will be stored under.
+     * @param queueDepth The number of items waiting to be written, including this one.
+     * @param durability What the acknowledgement guarantees.
+     */
+    public QueuedWrite(String id, int queueDepth, String durability) {
+        this.id = id;
+        this.queueDepth = queueDepth;
+        this.durability = durability;
+    }
+
+    /**
+     * @return The ID the item will be stored under.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The number of items waiting to be written when the item was accepted, including it.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return What the acknowledgement guarantees.
+     */
+    public String getDurability() {
+        return durability;
+    }
+}
@@ -0,0 +1,78 @@
+package com.davis.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * An inventory item whose units available are at or below its reorder point.
+ * The severity is the shortfall relative to the reorder point: 0 at the reorder point,
+ * 1 when out of stock, above 1 when more units were sold than were in stock.
+ */
+public class ReorderAlert {
+
+    private final String inventoryId; // ID of the inventory item
+    private final String productSKU; // SKU of the product of the item
+    private final int unitsAvailable; // Units in stock
+    private final int reOrderPoint; // Units at which the item should be reordered
+    private final double severity; // Shortfall relative to the reorder point
+    private final LocalDateTime since; // When the item was first seen at or below its reorder point (UTC)
+
+    /**
+     * @param inventoryId    The ID of the inventory item.
+     * @param productSKU     The SKU of the product of the item.
+     * @param unitsAvailable The units in stock.
+     * @param reOrderPoint   The units at which the item should be reordered.
+     * @param since          When the item was first seen at or below its reorder point (UTC).
+     */
+    public ReorderAlert(String inventoryId, String productSKU, int unitsAvailable, int reOrderPoint,
+            LocalDateTime since) {
+        this.inventoryId = inventoryId;
+        this.productSKU = productSKU;
+        this.unitsAvailable = unitsAvailable;
+        this.reOrderPoint = reOrderPoint;
+        this.severity = reOrderPoint > 0 ? (reOrderPoint - unitsAvailable) / (double) reOrderPoint : 0;
+        this.since = since;
+    }
+
+    /**
+     * @return The ID of the inventory item.
+     */
+    public String getInventoryId() {
+        return inventoryId;
+    }
+
+    /**
+     * @return The SKU of the product of the item.
+     */
+    public String getProductSKU() {
+        return productSKU;
+    }
+
+    /**
+     * @return The units in stock.
+     */
+    public int getUnitsAvailable() {
+        return unitsAvailable;
+    }
+
+    /**
+     * @return The units at which the item should be reordered.
+     */
+    public int getReOrderPoint() {
+        return reOrderPoint;
+    }
+
+    /**
+     * @return The shortfall relative to the reorder point (0 at the reorder point, 1 when out of stock).
+     */
+    public double getSeverity() {
+        return severity;
+    }
+
+    /**
+     * @return When the item was first seen at or below its reorder point (UTC).
+     */
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.davis.dto;
+
+/**
+ * Snapshot of the counters of the in-memory stock counters and their flush to the database.
+ */
+public class StockCounterMetrics {
+
+    private final boolean enabled; // Whether sales can be recorded in memory
+    private final long salesRecorded; // Sales recorded in memory since startup
+    private final long salesRefused; // Sales refused because too few unreserved units were left
+    private final long unitsRecorded; // Units sold through the counters since startup
+    private final long unitsFlushed; // Units written to the database since startup
+    private final long unitsUnmatched; // Units whose item no longer existed when they were flushed
+    private final long flushes; // Transactions that applied sales
+    private final long failedFlushes; // Flushes that failed and will be retried
+    private final int pendingSegments; // Journal segments written but not yet applied
+    private final long flushLagMillis; // Age of the oldest sale not yet in the database
+    private final long lastFlushMillis; // Duration of the last successful flush
+    private final String lastError; // Last error of the journal or of a flush, null if none
+
+    /**
+     * @param enabled         Whether sales can be recorded in memory (false if the journal is not set up).
+     * @param salesRecorded   The number of sales recorded in memory since startup.
+     * @param salesRefused    The number of sales refused because too few unreserved units were left.
+     * @param unitsRecorded   The number of units sold through the counters since startup.
+     * @param unitsFlushed    The number of units written to the database since startup.
+     * @param unitsUnmatched  The number of units whose item no longer existed when they were flushed.
+     * @param flushes         The number of transactions that applied sales.
+     * @param failedFlushes   The number of flushes that failed and will be retried.
+     * @param pendingSegments The number of journal segments written but not yet applied.
+     * @param flushLagMillis  The age of the oldest sale not yet in the database, in milliseconds (0 if none).
+     * @param lastFlushMillis The duration of the last successful flush, in milliseconds.
+     * @param lastError       The last error of the journal or of a flush, or null if none occurred.
+     */
+    public StockCounterMetrics(boolean enabled, long salesRecorded, long salesRefused, long unitsRecorded,
+            long unitsFlushed, long unitsUnmatched, long flushes, long failedFlushes, int pendingSegments,
+            long flushLagMillis, long lastFlushMillis, String lastError) {
+        this.enabled = enabled;
+        this.salesRecorded = salesRecorded;
+        this.salesRefused = salesRefused;
+        this.unitsRecorded = unitsRecorded;
+        this.unitsFlushed = unitsFlushed;
+        this.unitsUnmatched = unitsUnmatched;
+        this.flushes = flushes;
+        this.failedFlushes = failedFlushes;
+        this.pendingSegments = pendingSegments;
+        this.flushLagMillis = flushLagMillis;
+        this.lastFlushMillis = lastFlushMillis;
+        this.lastError = lastError;
+    }
+
+    /**
+     * @return Whether sales can be recorded in memory (false if the journal is not set up).
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The number of sales recorded in memory since startup.
+     */
+    public long getSalesRecorded() {
+        return salesRecorded;
+    }
+
+    /**
+     * @return The number of sales refused because too few unreserved units were left.
+     */
+    public long getSalesRefused() {
+        return salesRefused;
+    }
+
+    /**
+     * @return The number of units sold through the counters since startup.
+     */
+    public long getUnitsRecorded() {
+        return unitsRecorded;
+    }
+
+    /**
+     * @return The number of units written to the database since startup.
+     */
+    public long getUnitsFlushed() {
+        return unitsFlushed;
+    }
+
+    /**
+     * @return The number of units whose item no longer existed when they were flushed.
+     */
+    public long getUnitsUnmatched() {
+        return unitsUnmatched;
+    }
+
+    /**
+     * @return The number of transactions that applied sales.
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * @return The number of flushes that failed and will be retried.
+     */
+    public long getFailedFlushes() {
+        return failedFlushes;
+    }
+
+    /**
+     * @return The number of journal segments written but not yet applied.
+     */
+    public int getPendingSegments() {
+        return pendingSegments;
+    }
+
+    /**
+     * @return The age of the oldest sale not yet in the database, in milliseconds (0 if none).
+     */
+    public long getFlushLagMillis() {
+        return flushLagMillis;
+    }
+
+    /**
+     * @return The duration of the last successful flush, in milliseconds.
+     */
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    /**
+     * @return The last error of the journal or of a flush, or null if none occurred.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,71 @@
+package com.davis.dto;
+
+/**
+ * Read-only view of a supplier for list endpoints.
+ * Built directly by a projection query, so no managed entity or dirty-checking snapshot is
+ * created per row.
+ */
+public class SupplierSummary {
+
+    private final String supplierId; // Unique identifier for the supplier
+    private final String name; // Name of the supplier
+    private final String phoneNumber; // Telephone number of the supplier
+    private final String email; // Email address of the supplier
+    private final String district; // District of the supplier address
+    private final String status; // Status of the supplier
+
+    /**
+     * Creates the summary; used by the JPQL constructor expression of the projection query.
+     */
+    public SupplierSummary(String supplierId, String name, String phoneNumber, String email, String district,
+            String status) {
+        this.supplierId = supplierId;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+        this.district = district;
+        this.status = status;
+    }
+
+    /**
+     * @return The supplier ID.
+     */
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    /**
+     * @return The supplier name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The telephone number, or null.
+     */
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    /**
+     * @return The email address, or null.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return The district, or null.
+     */
+    public String getDistrict() {
+        return district;
+    }
+
+    /**
+     * @return The status of the supplier.
+     */
+    public String getStatus() {
+        return status;
+    }
+}
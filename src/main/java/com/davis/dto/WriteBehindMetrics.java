@@ -0,0 +1,111 @@
+package com.davis.dto;
+
+/**
+ * Snapshot of the counters of a write-behind queue.
+ */
+public class WriteBehindMetrics {
+
+    private final int queueDepth; // Items waiting to be written
+    private final int capacity; // Maximum number of waiting items
+    private final long accepted; // Items queued since startup
+    private final long written; // Items stored since startup
+    private final long failed; // Items that could not be stored
+    private final long rejected; // Items not queued because the queue was full or stopping
+    private final long batches; // Batches taken by the flusher
+    private final int retrying; // Items held until the database is available again
+    private final long oldestWaitMillis; // Time the oldest waiting item has been queued
+
+    /**
+     * @param queueDepth       The number of items waiting to be written.
+     * @param capacity         The maximum number of waiting items.
+     * @param accepted         The number of items queued since startup.
+     * @param written          The number of items stored since startup.
+     * @param failed           The number of items that could not be stored.
+     * @param rejected         The number of items not queued because the queue was full or stopping.
+     * @param batches          The number of batches taken by the flusher.
+     * @param retrying         The number of items held until the database is available again.
+     * @param oldestWaitMillis The time the oldest waiting item has been queued, in milliseconds.
+     */
+    public WriteBehindMetrics(int queueDepth, int capacity, long accepted, long written, long failed,
+            long rejected, long batches, int retrying, long oldestWaitMillis) {
+        this.queueDepth = queueDepth;
+        this.capacity = capacity;
+        this.accepted = accepted;
+        this.written = written;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.batches = batches;
+        this.retrying = retrying;
+        this.oldestWaitMillis = oldestWaitMillis;
+    }
+
+    /**
+     * @return The number of items waiting to be written.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return The maximum number of waiting items.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of items queued since startup.
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return The number of items stored since startup.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * @return The number of items that could not be stored.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return The number of items not queued because the queue was full or stopping.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return The number of batches taken by the flusher.
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return The number of items held until the database is available again.
+     */
+    public int getRetrying() {
+        return retrying;
+    }
+
+    /**
+     * @return The average number of items written per batch.
+     */
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0 : (double) written / batches;
+    }
+
+    /**
+     * @return The time the oldest waiting item has been queued, in milliseconds.
+     */
+    public long getOldestWaitMillis() {
+        return oldestWaitMillis;
+    }
+}
@@ -0,0 +1,23 @@
+package com.davis.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request is valid but cannot be applied to the current state of an item
+ * (e.g. reserving more units than are available).
+ *
+ * @ResponseStatus(HttpStatus.CONFLICT) Specifies that the HTTP response status will be 409 (Conflict).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message Why the request cannot be applied.
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
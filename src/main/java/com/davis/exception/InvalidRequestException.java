@@ -0,0 +1,23 @@
+package com.davis.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request cannot be processed because its content is invalid
+ * (e.g. it refers to a product that does not exist).
+ *
+ * @ResponseStatus(HttpStatus.BAD_REQUEST) Specifies that the HTTP response status will be 400 (Bad Request).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message The reason the request is invalid.
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.davis.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request refers to an item that does not exist
+ * (e.g. a reservation for an unknown inventory item).
+ *
+ * @ResponseStatus(HttpStatus.NOT_FOUND) Specifies that the HTTP response status will be 404 (Not Found).
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class NotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message Which item was not found.
+     */
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,334 @@
+package com.davis.filter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Response wrapper used by {@link CompressionFilter}.
+ * The body is held back until it reaches the minimum size; only then is it decided whether the
+ * response is compressed, so the Content-Encoding header can still be set. Bodies that end below
+ * the minimum size are sent uncompressed with an exact Content-Length.
+ * Non-blocking writes (a {@link WriteListener}) are passed through uncompressed: the deflater
+ * would have to buffer and write on its own, outside the container's readiness callbacks.
+ */
+class CompressingResponse extends HttpServletResponseWrapper {
+
+    private static final int BUFFER_SIZE = 8192; // Size of the deflater output buffer
+
+    private final String encoding; // Content coding to apply ("gzip" or "deflate")
+    private final int minSize; // Minimum body size for compression
+    private final int level; // Deflater compression level
+
+    private long contentLength = -1; // Content length declared by the application, held back until the decision
+    private CompressingOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response, String encoding, int minSize, int level) {
+        super(response);
+        this.encoding = encoding;
+        this.minSize = minSize;
+        this.level = level;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        contentLength = length;
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        contentLength = length;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            contentLength = value == null ? -1 : Long.parseLong(value.trim());
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            contentLength = Long.parseLong(value.trim());
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            contentLength = value;
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            contentLength = value;
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.flush();
+            if (!outputStream.isDecided()) {
+                return; // Committing now would make the decision impossible
+            }
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (outputStream != null) {
+            outputStream.resetBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = -1;
+        if (outputStream != null) {
+            outputStream.resetBuffer();
+        }
+        super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING); // Cleared by the reset
+    }
+
+    /**
+     * Completes the response: writes a body that stayed below the minimum size, or finishes the
+     * compressed stream. Called by the filter once the application is done with the response.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.finish();
+        }
+    }
+
+    private CompressingOutputStream stream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    /**
+     * Decides whether the body is compressed, from the response headers as they are at that point.
+     */
+    private boolean shouldCompress() {
+        if (getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false; // Already encoded by the application
+        }
+        int status = getStatus();
+        if (status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status == SC_PARTIAL_CONTENT) {
+            return false;
+        }
+        if (contentLength >= 0 && contentLength < minSize) {
+            return false;
+        }
+        return isCompressible(getContentType());
+    }
+
+    /**
+     * Textual content compresses well; binary formats (images, Smile, CBOR) are left alone.
+     */
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        return type.startsWith("text/")
+                || type.equals("application/json") || type.endsWith("+json")
+                || type.equals("application/x-ndjson")
+                || type.equals("application/xml") || type.endsWith("+xml")
+                || type.equals("application/javascript");
+    }
+
+    /**
+     * Output stream that buffers the body until the compression decision and then writes either
+     * through a deflater or directly to the response.
+     */
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private byte[] buffer = new byte[Math.max(minSize, 1)]; // Body held back before the decision
+        private int count; // Number of bytes in the buffer
+        private OutputStream target; // Deflater or response stream, once decided
+        private ServletOutputStream passThrough; // Response stream when the body is sent uncompressed
+        private Deflater deflater; // Deflater of a compressed body, released when finished
+        private boolean finished;
+        private final byte[] single = new byte[1]; // Scratch array for single-byte writes
+
+        boolean isDecided() {
+            return target != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (finished) {
+                throw new IOException("Response has already been completed");
+            }
+            if (target == null) {
+                if (count + length < buffer.length) {
+                    System.arraycopy(bytes, offset, buffer, count, length);
+                    count += length;
+                    return;
+                }
+                // The body is large enough for compression
+                decide(shouldCompress(), false);
+            }
+            target.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Before the decision the body is held back; flushing it would commit the response
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        void resetBuffer() {
+            if (target == null) {
+                count = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            try {
+                if (target == null) {
+                    decide(false, true);
+                }
+                if (target instanceof DeflaterOutputStream) {
+                    ((DeflaterOutputStream) target).finish();
+                }
+                target.flush();
+            } finally {
+                finished = true;
+                if (deflater != null) {
+                    deflater.end(); // Releases the native memory of the deflater
+                }
+            }
+        }
+
+        private void decide(boolean compress, boolean complete) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (compress) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+                // The compressed bytes differ from the identity ones, so a strong ETag no longer applies
+                String etag = response.getHeader(HttpHeaders.ETAG);
+                if (etag != null && etag.startsWith("\"")) {
+                    response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+                }
+                deflater = new Deflater(level, "gzip".equals(encoding));
+                target = "gzip".equals(encoding)
+                        ? new GzipStream(response.getOutputStream(), deflater)
+                        : new DeflaterOutputStream(response.getOutputStream(), deflater, BUFFER_SIZE, true);
+            } else {
+                if (complete && contentLength < 0) {
+                    contentLength = count; // The whole body is known
+                }
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                passThrough = response.getOutputStream();
+                target = passThrough;
+            }
+            target.write(buffer, 0, count);
+            buffer = null;
+            count = 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return passThrough == null || passThrough.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (target == null) {
+                // Steps aside: the body held back so far is written while the stream is still blocking
+                try {
+                    decide(false, false);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not write the response before non-blocking mode", e);
+                }
+            }
+            if (passThrough == null) {
+                throw new IllegalStateException("Non-blocking writes cannot start once the body is being compressed");
+            }
+            passThrough.setWriteListener(writeListener);
+        }
+    }
+
+    /**
+     * Gzip stream using a deflater owned by the caller, so the compression level can be chosen.
+     * Output is sync-flushed on {@code flush()}, which lets streamed rows reach the client.
+     */
+    private static final class GzipStream extends GZIPOutputStream {
+
+        GzipStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, BUFFER_SIZE, true);
+            def.end(); // Replaces the default deflater created by the superclass
+            def = deflater;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.davis.filter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Compresses responses with gzip or deflate, as negotiated by the {@code Accept-Encoding} header
+ * of the request. Only textual content (JSON, NDJSON, XML, text) is compressed, and only once the
+ * body grows beyond a minimum size, so small responses are sent as they are.
+ *
+ * Streaming responses ({@code StreamingResponseBody}) are compressed as they are written: the
+ * filter also runs on the async dispatch that ends such a response and finishes the compressed
+ * stream there.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    /**
+     * Bodies smaller than this number of bytes are sent uncompressed.
+     */
+    public static final int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * Compression level used by default; level 6 is zlib's own default balance of speed and size.
+     */
+    public static final int DEFAULT_LEVEL = 6;
+
+    private final int minSize; // Minimum body size in bytes for compression
+    private final int level; // Deflater compression level (1 = fastest, 9 = smallest)
+
+    public CompressionFilter() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_LEVEL);
+    }
+
+    /**
+     * @param minSize The minimum body size in bytes for a response to be compressed.
+     * @param level   The compression level, from 1 (fastest) to 9 (smallest).
+     */
+    public CompressionFilter(int minSize, int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9: " + level);
+        }
+        this.minSize = minSize;
+        this.level = level;
+    }
+
+    /**
+     * The filter must also run on async dispatches to finish the streams of streaming responses.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // On an async dispatch the response is the one wrapped by the initial dispatch
+        CompressingResponse compressingResponse = WebUtils.getNativeResponse(response, CompressingResponse.class);
+        if (compressingResponse == null) {
+            // The representation depends on Accept-Encoding, whichever encoding is chosen
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            String encoding = negotiateEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            compressingResponse = new CompressingResponse(response, encoding, minSize, level);
+            response = compressingResponse;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // A streaming response is still being written; it is finished on the async dispatch
+            if (!request.isAsyncStarted()) {
+                compressingResponse.finish();
+            }
+        }
+    }
+
+    /**
+     * Picks the content coding to use from an {@code Accept-Encoding} header.
+     * The coding with the highest quality value wins, gzip on a tie; a quality of 0 rules a coding out.
+     *
+     * @param acceptEncoding The value of the header, or null.
+     * @return "gzip", "deflate", or null if the response should not be compressed.
+     */
+    static String negotiateEncoding(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0; // Malformed quality values are ignored
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = quality;
+            } else if ("deflate".equals(coding)) {
+                deflate = quality;
+            } else if ("*".equals(coding)) {
+                wildcard = quality;
+            }
+        }
+        // Codings that are not listed take the quality of the wildcard
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return "gzip";
+        }
+        return deflate > 0 ? "deflate" : null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.davis.filter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import com.davis.dto.CacheMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Makes POST requests carrying an {@code Idempotency-Key} header safe to retry.
+ * The response to the first request with a key is stored; a retry with the same key (and the
+ * same method and path) gets the stored response back without reaching the controllers, so it
+ * neither generates new IDs nor writes another row. A retry arriving while the first request is
+ * still running waits for its response instead of running concurrently.
+ *
+ * Responses with a 5xx status are not stored, so a retry after a server error runs again.
+ * The store is in memory: it is bounded by size and entries expire after {@value #TTL_HOURS}
+ * hours. Keys are not shared between application instances.
+ *
+ * @Component Indicates that this class is a Spring-managed component; it is registered as a
+ *            servlet filter through a {@code DelegatingFilterProxy}.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the request header carrying the idempotency key.
+     */
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Name of the response header marking a stored response that is sent again.
+     */
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    static final long TTL_HOURS = 24; // Time a stored response is kept
+    static final long MAXIMUM_WEIGHT = 64L * 1024 * 1024; // Maximum total size of the stored responses, in bytes
+    static final int MAX_KEY_LENGTH = 255; // Longest accepted key
+    static final long WAIT_SECONDS = 30; // Default time a concurrent retry waits for the first request
+
+    // Headers that belong to one transfer of the response rather than to the response itself
+    private static final Set<String> TRANSFER_HEADERS = new HashSet<>(Arrays.asList(
+            "content-length", "content-encoding", "transfer-encoding", "vary", "date", "connection"));
+
+    private final Cache<String, StoredResponse> responses = Caffeine.newBuilder()
+            .maximumWeight(MAXIMUM_WEIGHT)
+            .weigher((String key, StoredResponse response) -> response.weight())
+            .expireAfterWrite(TTL_HOURS, TimeUnit.HOURS)
+            .recordStats()
+            .build();
+
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>(); // Requests being processed
+
+    private volatile long waitMillis = TimeUnit.SECONDS.toMillis(WAIT_SECONDS); // Time a concurrent retry waits
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must hold 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        // The same key may be used on different endpoints
+        String key = request.getMethod() + ' ' + request.getRequestURI() + ' ' + idempotencyKey;
+
+        while (true) {
+            StoredResponse stored = responses.getIfPresent(key);
+            if (stored != null) {
+                stored.replay(response);
+                return;
+            }
+
+            CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, pending);
+            if (running != null) {
+                // Another request with this key is running; use its response
+                stored = await(running);
+                if (stored == null) {
+                    if (running.isDone()) {
+                        continue; // It was not stored (e.g. server error); run this request instead
+                    }
+                    response.sendError(HttpServletResponse.SC_CONFLICT,
+                            "A request with this " + IDEMPOTENCY_KEY + " is still being processed");
+                    return;
+                }
+                stored.replay(response);
+                return;
+            }
+
+            try {
+                // The first request may have completed between the lookup and the registration
+                stored = responses.getIfPresent(key);
+                if (stored != null) {
+                    pending.complete(stored);
+                    stored.replay(response);
+                    return;
+                }
+                stored = process(request, response, filterChain);
+                if (stored != null) {
+                    responses.put(key, stored);
+                }
+                pending.complete(stored);
+            } catch (IOException | ServletException | RuntimeException | Error e) {
+                pending.complete(null);
+                throw e;
+            } finally {
+                inFlight.remove(key, pending);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Sets how long a retry waits for a running request with the same key before it is answered
+     * with 409 (Conflict).
+     *
+     * @param timeout The time to wait.
+     * @param unit    The unit of the time.
+     */
+    void setWaitTimeout(long timeout, TimeUnit unit) {
+        this.waitMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * @return A snapshot of the hit, miss and eviction counters of the response store.
+     */
+    public CacheMetrics getMetrics() {
+        return new CacheMetrics(responses.estimatedSize(), responses.stats());
+    }
+
+    /**
+     * Runs the request and captures its response.
+     *
+     * @return The response to store, or null if it must not be stored.
+     */
+    private StoredResponse process(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (request.isAsyncStarted()) {
+            // The body is written later by another thread; such responses cannot be stored
+            wrapper.copyBodyToResponse();
+            return null;
+        }
+        StoredResponse stored = wrapper.getStatus() < 500 ? new StoredResponse(wrapper) : null;
+        wrapper.copyBodyToResponse();
+        return stored;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) throws IOException {
+        try {
+            return running.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a request with the same " + IDEMPOTENCY_KEY, e);
+        } catch (ExecutionException e) {
+            return null; // Never completed exceptionally; treated as not stored
+        }
+    }
+
+    /**
+     * A stored response: status, headers and body.
+     */
+    private static final class StoredResponse {
+        private final int status;
+        private final List<String[]> headers = new ArrayList<>(); // Name and value pairs
+        private final byte[] body;
+
+        private StoredResponse(ContentCachingResponseWrapper response) {
+            this.status = response.getStatus();
+            for (String name : new HashSet<>(response.getHeaderNames())) {
+                if (!TRANSFER_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    for (String value : response.getHeaders(name)) {
+                        headers.add(new String[] { name, value });
+                    }
+                }
+            }
+            if (response.getContentType() != null && response.getHeader(HttpHeaders.CONTENT_TYPE) == null) {
+                headers.add(new String[] { HttpHeaders.CONTENT_TYPE, response.getContentType() });
+            }
+            this.body = response.getContentAsByteArray();
+        }
+
+        private int weight() {
+            int weight = body.length + 64;
+            for (String[] header : headers) {
+                weight += header[0].length() + header[1].length();
+            }
+            return weight;
+        }
+
+        private void replay(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            for (String[] header : headers) {
+                if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header[0])) {
+                    response.setContentType(header[1]);
+                } else {
+                    response.addHeader(header[0], header[1]);
+                }
+            }
+            response.setHeader(IDEMPOTENT_REPLAYED, "true");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.davis.model;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Clock of the {@code createdOn} and {@code updatedOn} columns.
+ *
+ * The timestamps are kept in UTC, so they never go backwards when the local clock changes
+ * for daylight saving time, and they are truncated to milliseconds, so a value read back
+ * from the database compares equal to the one written. The change feeds rely on both.
+ */
+public final class ChangeTimestamps {
+
+    private ChangeTimestamps() {
+    }
+
+    /**
+     * @return The current time, in UTC, truncated to milliseconds.
+     */
+    public static LocalDateTime now() {
+        return now(Clock.systemUTC());
+    }
+
+    /**
+     * @param clock The clock to read.
+     * @return The time of the clock, in UTC, truncated to milliseconds.
+     */
+    public static LocalDateTime now(Clock clock) {
+        return LocalDateTime.now(clock.withZone(ZoneOffset.UTC)).truncatedTo(ChronoUnit.MILLIS);
+    }
+}
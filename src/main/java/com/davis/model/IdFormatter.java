@@ -0,0 +1,120 @@
+package com.davis.model;
+
+/**
+ * Formats sequence values produced by {@link IdGeneration} into the ID shapes used by the system:
+ * product SKUs, inventory IDs, supplier IDs and product category IDs.
+ *
+ * Each thread reuses its own character buffer, so formatting an ID allocates nothing but the
+ * resulting string. The formats are kept identical to the ones previously built by the services.
+ */
+public final class IdFormatter {
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    private IdFormatter() {
+    }
+
+    /**
+     * Formats a product SKU from the product initial, the category initial, the weight and unit
+     * of measurement (if a weight is set) and the sequential number.
+     *
+     * @param productName       The name of the product.
+     * @param categoryName      The name of the product category.
+     * @param weight            The weight of the product, or null.
+     * @param unitOfmeasurement The unit of measurement of the weight, or null.
+     * @param skuNumber         The sequential number of the SKU.
+     * @return The SKU (e.g., "AF-1.5kg-001").
+     */
+    public static String formatSku(String productName, String categoryName, Double weight,
+            String unitOfmeasurement, long skuNumber) {
+        StringBuilder sku = buffer();
+
+        // Product and category initials
+        appendInitial(sku, productName);
+        appendInitial(sku, categoryName);
+
+        // Weight and up to two characters of the unit of measurement
+        if (weight != null && weight > 0) {
+            sku.append('-').append(weight.doubleValue());
+            if (unitOfmeasurement != null && !unitOfmeasurement.isEmpty()) {
+                sku.append(unitOfmeasurement, 0, Math.min(2, unitOfmeasurement.length()));
+            }
+        }
+
+        // Sequential number, padded to 3 digits below 10
+        sku.append('-');
+        if (skuNumber <= 9) {
+            appendPadded(sku, skuNumber, 3);
+        } else {
+            sku.append(skuNumber);
+        }
+        return sku.toString();
+    }
+
+    /**
+     * Formats an inventory ID (e.g., "IN000422025" for value 42 in 2025).
+     *
+     * @param id   The sequence value.
+     * @param year The current year.
+     * @return The inventory ID.
+     */
+    public static String formatInventoryId(long id, int year) {
+        StringBuilder inventoryId = buffer().append("IN");
+        appendPadded(inventoryId, id, 5);
+        return inventoryId.append(year).toString();
+    }
+
+    /**
+     * Formats a supplier ID (e.g., "SU00422025" for value 42 in 2025).
+     *
+     * @param id   The sequence value.
+     * @param year The current year.
+     * @return The supplier ID.
+     */
+    public static String formatSupplierId(long id, int year) {
+        StringBuilder supplierId = buffer().append("SU");
+        appendPadded(supplierId, id, 4);
+        return supplierId.append(year).toString();
+    }
+
+    /**
+     * Formats a product category ID (e.g., "CAT042" for value 42).
+     * Values from 100 upwards keep the historical "CATO" prefix so existing IDs stay consistent.
+     *
+     * @param id The sequence value.
+     * @return The category ID.
+     */
+    public static String formatProductCategoryId(long id) {
+        StringBuilder categoryId = buffer();
+        if (id < 100) {
+            categoryId.append("CAT");
+            appendPadded(categoryId, id, 3);
+        } else {
+            categoryId.append("CATO").append(id);
+        }
+        return categoryId.toString();
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private static void appendInitial(StringBuilder target, String name) {
+        if (name != null && !name.isEmpty()) {
+            target.append(Character.toUpperCase(name.charAt(0)));
+        }
+    }
+
+    private static void appendPadded(StringBuilder target, long value, int width) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            target.append('0');
+        }
+        target.append(value);
+    }
+}
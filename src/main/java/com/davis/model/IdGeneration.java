@@ -1,61 +1,212 @@
 package com.davis.model;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * A utility class for generating unique IDs using a database sequence table.
- * This class is responsible for retrieving the current value of a sequence,
- * incrementing it, and updating the database with the new value.
+ * IDs are handed out using a hi/lo block allocator: a range of values (a block) is reserved
+ * per sequence name in one short database transaction, and values are then served from an in-memory
+ * counter until the block is used up.
+ *
+ * A reservation is executed in its own short transaction, so the row lock on ID_Gen is released
+ * as soon as the reservation commits instead of being held until the caller's business transaction ends.
+ *
+ * Unused values of a block are lost when the application stops, so generated IDs may have gaps.
  */
 @Component // Marks this class as a Spring component, making it eligible for dependency injection.
 public class IdGeneration {
 
+    /**
+     * Number of values reserved per database call when no block size is configured for a sequence.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
 	 @PersistenceContext
 	    private EntityManager entityManager;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate reservationTemplate; // Runs block reservations in their own transaction
+
+    private final ConcurrentMap<String, Integer> blockSizes = new ConcurrentHashMap<>(); // Block size per sequence name
+
+    private final ConcurrentMap<String, IdBlock> blocks = new ConcurrentHashMap<>(); // Current block per sequence name
+
+    private final ConcurrentMap<String, SequenceMetrics> metrics = new ConcurrentHashMap<>(); // Contention metrics per sequence name
+
+    /**
+     * Creates the transaction template used for block reservations.
+     * A reservation must commit independently of the caller's transaction: once values of a block
+     * have been handed out, rolling the reservation back would make the same values available again.
+     */
+    @PostConstruct
+    public void init() {
+        reservationTemplate = new TransactionTemplate(transactionManager);
+        reservationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Sets the number of values reserved per database call for the given sequence.
+     * The new size takes effect when the current block of the sequence is exhausted.
+     *
+     * @param idName    The name of the sequence.
+     * @param blockSize The number of values to reserve at a time (must be at least 1).
+     */
+    public void setBlockSize(String idName, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1 for sequence " + idName);
+        }
+        blockSizes.put(idName, blockSize);
+    }
+
+    /**
+     * Returns the number of values reserved per database call for the given sequence.
+     *
+     * @param idName The name of the sequence.
+     * @return The configured block size, or {@link #DEFAULT_BLOCK_SIZE} if none was set.
+     */
+    public int getBlockSize(String idName) {
+        return blockSizes.getOrDefault(idName, DEFAULT_BLOCK_SIZE);
+    }
+
     /**
      * Retrieves the next ID number for a given sequence name.
-     * This method performs the following steps:
-     * 1. Retrieves the current value of the sequence from the database.
-     * 2. Increments the value by 1.
-     * 3. Updates the database with the new value.
-     * 4. Returns the original (pre-incremented) value.
+     * The value is served from the in-memory block of the sequence; a new block is reserved
+     * from the database only when the current one is exhausted.
      *
      * @param idName The name of the sequence for which to generate the next ID.
-     * @return The current value of the sequence before incrementing.
-     * @throws RuntimeException If no rows are updated or if an error occurs during database operations.
+     * @return The next value of the sequence.
+     * @throws RuntimeException If the sequence does not exist or an error occurs during database operations.
      */
     public long getNextIdNumber(String idName) {
-        long currentValue = 0; // Stores the current value of the sequence.
-        try {
-            // SQL query to get the current value for the sequence
-            String selectSql = "SELECT idValue FROM ID_Gen WHERE idName = :idName";
-            Query selectQuery = entityManager.createNativeQuery(selectSql);
-            selectQuery.setParameter("idName", idName); // Sets the sequence name as a parameter.
-            currentValue = ((Number) selectQuery.getSingleResult()).intValue(); // Retrieves the current value.
-
-            // Increment the value
-            long nextValue = currentValue + 1; // Calculates the next value.
-
-            // SQL query to update the sequence value
-            String updateSql = "UPDATE ID_Gen SET idValue = :nextValue WHERE idName = :idName";
-            Query updateQuery = entityManager.createNativeQuery(updateSql);
-            updateQuery.setParameter("nextValue", nextValue); // Sets the next value as a parameter.
-            updateQuery.setParameter("idName", idName); // Sets the sequence name as a parameter.
-
-            // Executes the update query
-            int rowsUpdated = updateQuery.executeUpdate();
-            if (rowsUpdated == 0) {
-                throw new RuntimeException("No rows updated. Check if the 'user' record exists.");
+        IdBlock block = blocks.computeIfAbsent(idName, name -> new IdBlock());
+        SequenceMetrics sequenceMetrics = getMetrics(idName);
+        long waitStart = System.nanoTime();
+        synchronized (block) {
+            sequenceMetrics.recordWait(System.nanoTime() - waitStart);
+            if (block.next >= block.limit) {
+                // Current block is used up, reserve the next one
+                int blockSize = getBlockSize(idName);
+                long reservationStart = System.nanoTime();
+                long first = reserveBlock(idName, blockSize);
+                sequenceMetrics.recordReservation(System.nanoTime() - reservationStart);
+                block.next = first;
+                block.limit = first + blockSize;
             }
+            return block.next++;
+        }
+    }
+
+    /**
+     * Reserves a contiguous range of values for a given sequence name.
+     * The range is taken from the in-memory block of the sequence when it has enough values left,
+     * otherwise it is reserved from the database in one reservation; the current block is
+     * left untouched in that case.
+     *
+     * @param idName The name of the sequence.
+     * @param count  The number of values to reserve (must be at least 1).
+     * @return The reserved range.
+     * @throws RuntimeException If the sequence does not exist or an error occurs during database operations.
+     */
+    public IdRange getNextIdNumbers(String idName, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1 for sequence " + idName);
+        }
+        IdBlock block = blocks.computeIfAbsent(idName, name -> new IdBlock());
+        SequenceMetrics sequenceMetrics = getMetrics(idName);
+        long waitStart = System.nanoTime();
+        synchronized (block) {
+            sequenceMetrics.recordWait(System.nanoTime() - waitStart);
+            if (block.limit - block.next >= count) {
+                // Enough values left in the current block
+                IdRange range = new IdRange(block.next, count);
+                block.next += count;
+                return range;
+            }
+        }
+        // Reserve the whole range directly; the block lock is not needed for that
+        long reservationStart = System.nanoTime();
+        long first = reserveBlock(idName, count);
+        sequenceMetrics.recordReservation(System.nanoTime() - reservationStart);
+        return new IdRange(first, count);
+    }
+
+    /**
+     * Returns the contention metrics of all sequences used since startup.
+     *
+     * @return The metrics keyed by sequence name.
+     */
+    public Map<String, SequenceMetrics> getMetrics() {
+        return Collections.unmodifiableMap(new TreeMap<>(metrics));
+    }
+
+    private SequenceMetrics getMetrics(String idName) {
+        return metrics.computeIfAbsent(idName, name -> new SequenceMetrics());
+    }
+
+    /**
+     * Reserves a block of values for a given sequence name in a separate transaction.
+     * The sequence is advanced by the block size and then read back in the same short transaction;
+     * the update keeps the ID_Gen row locked until the reservation commits, so concurrent
+     * reservations (also from other nodes) never overlap.
+     *
+     * Pool size: when the caller already runs in a transaction, that transaction keeps its pooled
+     * connection while the reservation borrows a second one. The connection pool must therefore be
+     * larger than the number of transactional callers that can reserve at the same time (the default
+     * HikariCP pool of 10 connections allows up to 9); with a pool of one, a reservation inside a
+     * transaction waits for itself until the pool's connection timeout.
+     *
+     * @param idName    The name of the sequence.
+     * @param blockSize The number of values to reserve.
+     * @return The first value of the reserved block.
+     * @throws RuntimeException If the sequence does not exist or if an error occurs during database operations.
+     */
+    private long reserveBlock(String idName, int blockSize) {
+        try {
+            return reservationTemplate.execute(status -> {
+                // Advance the sequence; this locks the row until the reservation commits
+                Query reserveQuery = entityManager.createNativeQuery(
+                        "UPDATE ID_Gen SET idValue = idValue + :blockSize WHERE idName = :idName");
+                reserveQuery.setParameter("blockSize", blockSize); // Sets the block size as a parameter.
+                reserveQuery.setParameter("idName", idName); // Sets the sequence name as a parameter.
+                if (reserveQuery.executeUpdate() == 0) {
+                    throw new RuntimeException("No rows updated. Check if the '" + idName + "' record exists.");
+                }
+
+                // Read the advanced value under the same lock
+                Query valueQuery = entityManager.createNativeQuery("SELECT idValue FROM ID_Gen WHERE idName = :idName");
+                valueQuery.setParameter("idName", idName);
+                long advanced = ((Number) valueQuery.getSingleResult()).longValue();
+                return advanced - blockSize; // Returns the original (pre-incremented) value.
+            });
         } catch (Exception e) {
             e.printStackTrace(); // Logs the exception.
             throw new RuntimeException("Error updating sequence value", e); // Throws a runtime exception.
         }
-        return currentValue; // Returns the original (pre-incremented) value.
     }
-}
\ No newline at end of file
+
+    /**
+     * Range of reserved values of one sequence; {@code next} is the next value to hand out
+     * and {@code limit} is the first value that is not part of the block.
+     */
+    private static final class IdBlock {
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,54 @@
+package com.davis.model;
+
+/**
+ * A contiguous range of sequence values reserved by {@link IdGeneration#getNextIdNumbers(String, int)}.
+ * The range starts at {@link #getFirst()} and holds {@link #size()} consecutive values.
+ */
+public final class IdRange {
+
+    private final long first; // First value of the range
+    private final int size; // Number of values in the range
+
+    /**
+     * @param first The first value of the range.
+     * @param size  The number of values in the range.
+     */
+    public IdRange(long first, int size) {
+        this.first = first;
+        this.size = size;
+    }
+
+    /**
+     * @return The first value of the range.
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    /**
+     * @return The last value of the range.
+     */
+    public long getLast() {
+        return first + size - 1;
+    }
+
+    /**
+     * @return The number of values in the range.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value at the given position of the range.
+     *
+     * @param index The position, from 0 to {@code size() - 1}.
+     * @return The value at that position.
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside range of size " + size);
+        }
+        return first + index;
+    }
+}
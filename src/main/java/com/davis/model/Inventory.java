@@ -1,12 +1,18 @@
 package com.davis.model;
 
+import java.time.LocalDateTime;
+
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
 
 
 
@@ -17,8 +23,56 @@ import javax.persistence.NamedQuery;
  * @author CYPRIAN DAVIS
  */
 @Entity
+// Range scans of the change feed seek on this index
+@Table(indexes = @Index(name = "IX_Inventory_LastUpdatedOn", columnList = "LastUpdatedOn, StockId"))
 @NamedQueries({
-    @NamedQuery(name = "Inventory.viewInventory", query = "SELECT i FROM Inventory i")
+    // Product (with its supplier and category) and supplier are fetched in the same statement
+    // instead of several selects per inventory item
+    @NamedQuery(name = "Inventory.viewInventory",
+            query = "SELECT i FROM Inventory i LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.supplier "
+                    + "LEFT JOIN FETCH p.category LEFT JOIN FETCH i.supplier"),
+    // Read-only projection for list endpoints: builds DTOs directly, no managed entities
+    @NamedQuery(name = "Inventory.getInventorySummaries",
+            query = "SELECT new com.davis.dto.InventorySummary(i.inventoryId, p.productSKU, p.product, "
+                    + "s.supplierId, s.name, i.unitsAvailable, i.reservedUnits, i.reOrderPoint, "
+                    + "i.unitSellingPrice, i.expiryDate, i.status) "
+                    + "FROM Inventory i LEFT JOIN i.product p LEFT JOIN i.supplier s"),
+    // Change feed: keyset on (updatedOn, inventoryId), a range scan of IX_Inventory_LastUpdatedOn
+    @NamedQuery(name = "Inventory.getChangesSince",
+            query = "SELECT i FROM Inventory i LEFT JOIN FETCH i.product p LEFT JOIN FETCH p.supplier "
+                    + "LEFT JOIN FETCH p.category LEFT JOIN FETCH i.supplier "
+                    + "WHERE i.updatedOn >= :since AND (i.updatedOn > :since OR i.inventoryId > :after) "
+                    + "AND i.updatedOn <= :until ORDER BY i.updatedOn, i.inventoryId"),
+    @NamedQuery(name = "Inventory.getInventorySummary",
+            query = "SELECT new com.davis.dto.InventorySummary(i.inventoryId, p.productSKU, p.product, "
+                    + "s.supplierId, s.name, i.unitsAvailable, i.reservedUnits, i.reOrderPoint, "
+                    + "i.unitSellingPrice, i.expiryDate, i.status) "
+                    + "FROM Inventory i LEFT JOIN i.product p LEFT JOIN i.supplier s WHERE i.inventoryId = :id"),
+    // Reservations are single conditional updates: the check and the change happen in one statement
+    // under the row lock, so concurrent tills can never oversell and no lock is held between statements
+    @NamedQuery(name = "Inventory.reserveUnits",
+            query = "UPDATE Inventory i SET i.reservedUnits = i.reservedUnits + :units, i.updatedOn = :now "
+                    + "WHERE i.inventoryId = :id AND i.unitsAvailable - i.reservedUnits >= :units"),
+    @NamedQuery(name = "Inventory.releaseUnits",
+            query = "UPDATE Inventory i SET i.reservedUnits = i.reservedUnits - :units, i.updatedOn = :now "
+                    + "WHERE i.inventoryId = :id AND i.reservedUnits >= :units"),
+    // Stock levels for the reorder alerts; the startup pass lets the database pick the due items
+    @NamedQuery(name = "Inventory.getDueReorderAlerts",
+            query = "SELECT new com.davis.dto.ReorderAlert(i.inventoryId, p.productSKU, i.unitsAvailable, "
+                    + "i.reOrderPoint, i.updatedOn) FROM Inventory i LEFT JOIN i.product p "
+                    + "WHERE i.reOrderPoint > 0 AND i.unitsAvailable <= i.reOrderPoint"),
+    @NamedQuery(name = "Inventory.getReorderAlertsById",
+            query = "SELECT new com.davis.dto.ReorderAlert(i.inventoryId, p.productSKU, i.unitsAvailable, "
+                    + "i.reOrderPoint, i.updatedOn) FROM Inventory i LEFT JOIN i.product p WHERE i.inventoryId IN :ids"),
+    // Units that can still be sold (in stock and not reserved) of the given items
+    @NamedQuery(name = "Inventory.getSellableUnits",
+            query = "SELECT i.inventoryId, i.unitsAvailable - i.reservedUnits FROM Inventory i WHERE i.inventoryId IN :ids"),
+    // A sale takes only unreserved units; the status follows the rule of setUnitsAvailable
+    @NamedQuery(name = "Inventory.sellUnits",
+            query = "UPDATE Inventory i SET i.unitsAvailable = i.unitsAvailable - :units, "
+                    + "i.status = CASE WHEN i.unitsAvailable - :units < 1 THEN :outOfStock ELSE i.status END, "
+                    + "i.updatedOn = :now "
+                    + "WHERE i.inventoryId = :id AND i.unitsAvailable - i.reservedUnits >= :units")
 })
 public class Inventory {
 
@@ -54,7 +108,7 @@ public class Inventory {
     private int reOrderPoint; // Reorder point for the product
 
    
-    private String createdOn; // Date when the inventory was created
+    private LocalDateTime createdOn; // Date when the inventory was created (UTC)
 
     private double totalCost; // Total cost of the inventory
 
@@ -62,7 +116,7 @@ public class Inventory {
 
     @Column(name = "LastUpdatedOn")
    
-    private String updatedOn; // Date when the inventory was last updated
+    private LocalDateTime updatedOn; // Date when the inventory was last updated (UTC)
     /**
      * Default constructor for the Inventory class.
      */
@@ -149,7 +203,7 @@ public class Inventory {
      *
      * @return The creation date.
      */
-    public String getCreatedOn() {
+    public LocalDateTime getCreatedOn() {
         return createdOn;
     }
 
@@ -158,7 +212,7 @@ public class Inventory {
      *
      * @param createdOn The creation date to set.
      */
-    public void setCreatedOn(String createdOn) {
+    public void setCreatedOn(LocalDateTime createdOn) {
         this.createdOn = createdOn;
     }
 
@@ -167,7 +221,7 @@ public class Inventory {
      *
      * @return The last updated date.
      */
-    public String getUpdatedOn() {
+    public LocalDateTime getUpdatedOn() {
         return updatedOn;
     }
 
@@ -176,7 +230,7 @@ public class Inventory {
      *
      * @param updatedOn The last updated date to set.
      */
-    public void setUpdatedOn(String updatedOn) {
+    public void setUpdatedOn(LocalDateTime updatedOn) {
         this.updatedOn = updatedOn;
     }
 
@@ -324,4 +378,21 @@ public class Inventory {
     public void setTotalCost(double totalCost) {
         this.totalCost = totalCost;
     }
+
+    /**
+     * Sets the creation and last update dates when the inventory item is first saved.
+     */
+    @PrePersist
+    void onCreate() {
+        createdOn = ChangeTimestamps.now();
+        updatedOn = createdOn;
+    }
+
+    /**
+     * Sets the last update date whenever the inventory item is changed.
+     */
+    @PreUpdate
+    void onUpdate() {
+        updatedOn = ChangeTimestamps.now();
+    }
 }
@@ -1,12 +1,18 @@
 package com.davis.model;
 
+import java.time.LocalDateTime;
+
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
 
 
 /**
@@ -26,9 +32,32 @@ import javax.persistence.NamedQuery;
  * @since 2024-10-01
  */
 @Entity
+// Range scans of the change feed seek on this index
+@Table(indexes = @Index(name = "IX_Product_LastUpdatedOn", columnList = "lastUpdatedOn, ProductCode"))
 @NamedQueries({
-    @NamedQuery(name = "Product.getProducts", query = "SELECT p FROM Product p")
-   
+    // Supplier and category are fetched in the same statement instead of one select per product
+    @NamedQuery(name = "Product.getProducts",
+            query = "SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category"),
+    @NamedQuery(name = "Product.getFirstProducts",
+            query = "SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category "
+                    + "ORDER BY p.productSKU"),
+    @NamedQuery(name = "Product.getProductsAfter",
+            query = "SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category "
+                    + "WHERE p.productSKU > :after ORDER BY p.productSKU"),
+    // Read-only projection for list endpoints: builds DTOs directly, no managed entities
+    @NamedQuery(name = "Product.getProductSummaries",
+            query = "SELECT new com.davis.dto.ProductSummary(p.productSKU, p.barCode, p.product, p.description, "
+                    + "s.supplierId, s.name, c.id, c.name, p.productWeight, p.unitOfmeasurement, p.status) "
+                    + "FROM Product p LEFT JOIN p.supplier s LEFT JOIN p.category c"),
+    @NamedQuery(name = "Product.getExistingSkus",
+            query = "SELECT p.productSKU FROM Product p WHERE p.productSKU IN :skus"),
+    @NamedQuery(name = "Product.getBarcodes",
+            query = "SELECT p.barCode, p.productSKU FROM Product p WHERE p.barCode IS NOT NULL"),
+    // Change feed: keyset on (updatedOn, SKU), a range scan of IX_Product_LastUpdatedOn
+    @NamedQuery(name = "Product.getChangesSince",
+            query = "SELECT p FROM Product p LEFT JOIN FETCH p.supplier LEFT JOIN FETCH p.category "
+                    + "WHERE p.updatedOn >= :since AND (p.updatedOn > :since OR p.productSKU > :after) "
+                    + "AND p.updatedOn <= :until ORDER BY p.updatedOn, p.productSKU")
 })
 public class Product {
    
@@ -65,11 +94,11 @@ public class Product {
     private String status; // Status of the product (e.g., ACTIVE, EXPIRED, DISCONTINUED)
 
   
-    private String createdOn; // Date when the product was added
+    private LocalDateTime createdOn; // Date when the product was added (UTC)
 
     
     @Column(name="lastUpdatedOn")
-    private String updatedOn; // Date when the product was last updated
+    private LocalDateTime updatedOn; // Date when the product was last updated (UTC)
 
     
     /**
@@ -236,28 +265,45 @@ public class Product {
     /**
      * @return The date when the product was added.
      */
-    public String getCreatedOn() {
+    public LocalDateTime getCreatedOn() {
         return createdOn;
     }
 
     /**
      * @param createdOn The creation date to set.
      */
-    public void setCreatedOn(String createdOn) {
+    public void setCreatedOn(LocalDateTime createdOn) {
         this.createdOn = createdOn;
     }
 
     /**
      * @return The date when the product was last updated.
      */
-    public String getUpdatedOn() {
+    public LocalDateTime getUpdatedOn() {
         return updatedOn;
     }
 
     /**
      * @param updatedOn The last update date to set.
      */
-    public void setUpdatedOn(String updatedOn) {
+    public void setUpdatedOn(LocalDateTime updatedOn) {
         this.updatedOn = updatedOn;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the creation and last update dates when the product is first saved.
+     */
+    @PrePersist
+    void onCreate() {
+        createdOn = ChangeTimestamps.now();
+        updatedOn = createdOn;
+    }
+
+    /**
+     * Sets the last update date whenever the product is changed.
+     */
+    @PreUpdate
+    void onUpdate() {
+        updatedOn = ChangeTimestamps.now();
+    }
+}
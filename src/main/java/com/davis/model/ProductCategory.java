@@ -1,8 +1,10 @@
 package com.davis.model;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -10,6 +12,13 @@ import javax.persistence.Id;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.QueryHint;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -22,16 +31,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  * 
  * 
  * This class is annotated with JPA annotations to map it to a database table and define relationships
- * with other entities such as `Product`.
+ * with other entities such as `Product`. Categories change rarely, so they are kept in the
+ * second-level cache and the category listing is served from the query cache.
  * 
  * @author CYPRIAN DAVIS
  * @version 1.1
  * @since 2024-10-01
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "productCategory")
 @NamedQueries({
-    @NamedQuery(name = "ProductCategory.getCategories", query="SELECT p FROM ProductCategory p")
-    
+    @NamedQuery(name = "ProductCategory.getCategories", query="SELECT p FROM ProductCategory p",
+        hints = {
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION, value = "referenceDataQueries")
+        }),
+    @NamedQuery(name = "ProductCategory.getCategoriesById", query="SELECT p FROM ProductCategory p WHERE p.id IN :ids")
 })
 public class ProductCategory {
    
@@ -44,10 +60,10 @@ public class ProductCategory {
 
     private String description; // Description of the category
     
-    private String createdOn; // Date when the category was created
+    private LocalDateTime createdOn; // Date when the category was created (UTC)
     @Column(name="lastUpdatedOn")
    
-    private String updatedOn; // Date when the category was last updated
+    private LocalDateTime updatedOn; // Date when the category was last updated (UTC)
 
     // One-to-many relationship with Product
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY)
@@ -104,28 +120,28 @@ public class ProductCategory {
     /**
      * @return The date when the category was created.
      */
-    public String getCreatedOn() {
+    public LocalDateTime getCreatedOn() {
         return createdOn;
     }
 
     /**
      * @param createdOn The creation date to set.
      */
-    public void setCreatedOn(String createdOn) {
+    public void setCreatedOn(LocalDateTime createdOn) {
         this.createdOn = createdOn;
     }
 
     /**
      * @return The date when the category was last updated.
      */
-    public String getUpdatedOn() {
+    public LocalDateTime getUpdatedOn() {
         return updatedOn;
     }
 
     /**
      * @param updatedOn The last update date to set.
      */
-    public void setUpdatedOn(String updatedOn) {
+    public void setUpdatedOn(LocalDateTime updatedOn) {
         this.updatedOn = updatedOn;
     }
 
@@ -142,4 +158,21 @@ public class ProductCategory {
     public void setProducts(Set<Product> products) {
         this.products = products;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the creation and last update dates when the category is first saved.
+     */
+    @PrePersist
+    void onCreate() {
+        createdOn = ChangeTimestamps.now();
+        updatedOn = createdOn;
+    }
+
+    /**
+     * Sets the last update date whenever the category is changed.
+     */
+    @PreUpdate
+    void onUpdate() {
+        updatedOn = ChangeTimestamps.now();
+    }
+}
@@ -0,0 +1,74 @@
+package com.davis.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention metrics of one ID sequence managed by {@link IdGeneration}.
+ * Wait time is the time callers spend waiting for the in-memory block of the sequence,
+ * reservation time is the time spent in the database reserving a new block.
+ */
+public class SequenceMetrics {
+
+    private final LongAdder allocations = new LongAdder(); // Number of IDs handed out
+    private final LongAdder totalWaitNanos = new LongAdder(); // Total time spent waiting for the block
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0); // Longest single wait
+    private final LongAdder reservations = new LongAdder(); // Number of blocks reserved from the database
+    private final LongAdder totalReservationNanos = new LongAdder(); // Total time spent reserving blocks
+
+    void recordWait(long nanos) {
+        allocations.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulate(nanos);
+    }
+
+    void recordReservation(long nanos) {
+        reservations.increment();
+        totalReservationNanos.add(nanos);
+    }
+
+    /**
+     * @return The number of IDs handed out.
+     */
+    public long getAllocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * @return The number of blocks reserved from the database.
+     */
+    public long getReservations() {
+        return reservations.sum();
+    }
+
+    /**
+     * @return The total time callers spent waiting for the sequence, in microseconds.
+     */
+    public long getTotalWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum());
+    }
+
+    /**
+     * @return The average time a caller waited for the sequence, in microseconds.
+     */
+    public double getAverageWaitMicros() {
+        long count = allocations.sum();
+        return count == 0 ? 0 : totalWaitNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * @return The longest time a single caller waited for the sequence, in microseconds.
+     */
+    public long getMaxWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get());
+    }
+
+    /**
+     * @return The average duration of a block reservation, in microseconds.
+     */
+    public double getAverageReservationMicros() {
+        long count = reservations.sum();
+        return count == 0 ? 0 : totalReservationNanos.sum() / 1000.0 / count;
+    }
+}
@@ -1,18 +1,29 @@
 package com.davis.model;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 import javax.persistence.AttributeOverride;
 import javax.persistence.AttributeOverrides;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.QueryHint;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.QueryHints;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -21,12 +32,31 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  * Represents a supplier entity in the system.
  * A supplier can provide products, receive payments, and have purchase orders associated with them.
  * This class is mapped to a database table using JPA annotations.
+ * Suppliers change rarely, so they are kept in the second-level cache and the supplier
+ * listing is served from the query cache.
  * 
  * @author CYPRIAN DAVIS
  */
 @Entity
+// Range scans of the change feed seek on this index
+@Table(indexes = @Index(name = "IX_Supplier_LastUpdatedOn", columnList = "LastUpdatedOn, supplierId"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "supplier")
 @NamedQueries({
-  @NamedQuery(name = "Supplier.findAll",query = "SELECT s FROM Supplier s")
+  @NamedQuery(name = "Supplier.findAll",query = "SELECT s FROM Supplier s",
+      hints = {
+          @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+          @QueryHint(name = QueryHints.CACHE_REGION, value = "referenceDataQueries")
+      }),
+  @NamedQuery(name = "Supplier.findByIds", query = "SELECT s FROM Supplier s WHERE s.supplierId IN :ids"),
+  // Read-only projection for list endpoints: builds DTOs directly, no managed entities
+  @NamedQuery(name = "Supplier.getSupplierSummaries",
+      query = "SELECT new com.davis.dto.SupplierSummary(s.supplierId, s.name, s.contact.phoneNumber, "
+              + "s.contact.email, s.address.district, s.status) FROM Supplier s"),
+  // Change feed: keyset on (updatedOn, supplierId), a range scan of IX_Supplier_LastUpdatedOn
+  @NamedQuery(name = "Supplier.getChangesSince",
+      query = "SELECT s FROM Supplier s WHERE s.updatedOn >= :since AND (s.updatedOn > :since OR s.supplierId > :after) "
+              + "AND s.updatedOn <= :until ORDER BY s.updatedOn, s.supplierId")
 })
 public class Supplier {
    
@@ -51,10 +81,10 @@ public class Supplier {
     private Address address; // Address information of the supplier
 
     
-    private String createdOn; // Timestamp when the supplier was created
+    private LocalDateTime createdOn; // Timestamp when the supplier was created (UTC)
 
     @Column(name = "LastUpdatedOn")
-    private String updatedOn; // Timestamp when the supplier was last updated
+    private LocalDateTime updatedOn; // Timestamp when the supplier was last updated (UTC)
 
     private String status; // Current status of the supplier (e.g., ACTIVE, INACTIVE)
 
@@ -162,7 +192,7 @@ public class Supplier {
      *
      * @return The creation timestamp.
      */
-    public String getCreatedOn() {
+    public LocalDateTime getCreatedOn() {
         return createdOn;
     }
 
@@ -171,7 +201,7 @@ public class Supplier {
      *
      * @param createdOn The creation timestamp to set.
      */
-    public void setCreatedOn(String createdOn) {
+    public void setCreatedOn(LocalDateTime createdOn) {
         this.createdOn = createdOn;
     }
 
@@ -180,7 +210,7 @@ public class Supplier {
      *
      * @return The last updated timestamp.
      */
-    public String getUpdatedOn() {
+    public LocalDateTime getUpdatedOn() {
         return updatedOn;
     }
 
@@ -189,7 +219,7 @@ public class Supplier {
      *
      * @param updatedOn The last updated timestamp to set.
      */
-    public void setUpdatedOn(String updatedOn) {
+    public void setUpdatedOn(LocalDateTime updatedOn) {
         this.updatedOn = updatedOn;
     }
 
@@ -210,4 +240,21 @@ public class Supplier {
     public void setStatus(String status) {
         this.status = status;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the creation and last update dates when the supplier is first saved.
+     */
+    @PrePersist
+    void onCreate() {
+        createdOn = ChangeTimestamps.now();
+        updatedOn = createdOn;
+    }
+
+    /**
+     * Sets the last update date whenever the supplier is changed.
+     */
+    @PreUpdate
+    void onUpdate() {
+        updatedOn = ChangeTimestamps.now();
+    }
+}
@@ -0,0 +1,231 @@
+package com.davis.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.davis.dao.ProductDao;
+import com.davis.dto.BarcodeIndexMetrics;
+import com.davis.model.Product;
+
+/**
+ * In-memory index from product barcodes to SKUs, used to serve scanner lookups.
+ * GTIN barcodes (EAN-8, UPC-A, EAN-13 and GTIN-14: 8, 12, 13 or 14 digits) are stored as primitive
+ * longs in an open-addressing hash table with linear probing, so lookups neither box keys nor
+ * allocate. All other barcodes, including numeric internal codes of other lengths, are kept in a
+ * regular map under their exact text.
+ *
+ * Footprint: the table is kept at most half full, so one million GTIN barcodes occupy
+ * 2^21 slots of 8 bytes (key) plus 4 bytes (SKU reference) = 24 MiB, plus the SKU strings
+ * themselves (about 56 bytes each for a 12-character SKU), roughly 77 MiB in total.
+ * A {@code HashMap<String, String>} holding the same data needs about twice as much.
+ *
+ * GTINs that differ only in leading zeros map to the same key, which matches the GTIN rule that
+ * zero-padded codes identify the same item (a UPC-A is an EAN-13 with a leading zero). Other codes
+ * are not normalized, so internal codes such as "00042" and "42" stay two barcodes.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class BarcodeIndex implements SmartInitializingSingleton {
+
+    static final int INITIAL_CAPACITY = 1 << 10; // Slots of a new table (power of two)
+
+    private static final long EMPTY = 0L; // Key of an unused slot
+
+    @Autowired
+    private ProductDao productDao;
+
+    private final StampedLock lock = new StampedLock(); // Writers lock exclusively, readers validate optimistically
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    private final ConcurrentMap<String, String> otherBarcodes = new ConcurrentHashMap<>(); // Barcodes that are not GTINs, by exact text
+
+    /**
+     * Builds the index from the products in the database, in one streaming pass,
+     * once all singletons are created.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        productDao.streamBarcodes(this::put);
+    }
+
+    /**
+     * Adds the barcode of a saved product to the index.
+     *
+     * @param product The saved product.
+     */
+    public void index(Product product) {
+        if (product.getBarCode() != null) {
+            put(product.getBarCode(), product.getProductSKU());
+        }
+    }
+
+    /**
+     * Maps a barcode to a SKU, replacing any earlier mapping of the barcode.
+     *
+     * @param barCode The barcode.
+     * @param sku     The SKU of the product carrying the barcode.
+     */
+    public void put(String barCode, String sku) {
+        long key = toKey(barCode);
+        if (key == EMPTY) {
+            otherBarcodes.put(barCode, sku);
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            if ((current.size + 1) * 2 > current.keys.length) {
+                current = current.resize();
+                table = current;
+            }
+            current.put(key, sku);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Finds the SKU of the product carrying the given barcode.
+     *
+     * @param barCode The barcode.
+     * @return The SKU, or null if the barcode is unknown.
+     */
+    public String find(String barCode) {
+        long key = toKey(barCode);
+        if (key == EMPTY) {
+            return otherBarcodes.get(barCode);
+        }
+        long stamp = lock.tryOptimisticRead();
+        String sku = table.get(key);
+        if (!lock.validate(stamp)) {
+            // A writer changed the table while probing; read again under the lock
+            stamp = lock.readLock();
+            try {
+                sku = table.get(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return sku;
+    }
+
+    /**
+     * @return The number of barcodes and the estimated memory footprint of the index.
+     */
+    public BarcodeIndexMetrics getMetrics() {
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            long skuBytes = 0;
+            for (String sku : current.skus) {
+                if (sku != null) {
+                    skuBytes += stringBytes(sku);
+                }
+            }
+            long tableBytes = (long) current.keys.length * (Long.BYTES + 4);
+            return new BarcodeIndexMetrics(current.size, otherBarcodes.size(), current.keys.length,
+                    tableBytes + skuBytes);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Converts a GTIN barcode to its table key.
+     *
+     * @return The key, or {@link #EMPTY} if the barcode is not a GTIN (8, 12, 13 or 14 digits) or is zero.
+     */
+    static long toKey(String barCode) {
+        if (barCode == null || !isGtinLength(barCode.length())) {
+            return EMPTY;
+        }
+        long key = 0;
+        for (int i = 0; i < barCode.length(); i++) {
+            char c = barCode.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    private static boolean isGtinLength(int length) {
+        return length == 8 || length == 12 || length == 13 || length == 14;
+    }
+
+    private static long stringBytes(String value) {
+        // String object (24 bytes) plus its Latin-1 byte array (16 bytes header), padded to 8 bytes
+        return 24 + ((16 + value.length() + 7) & ~7);
+    }
+
+    /**
+     * Open-addressing table with linear probing; {@code keys} and {@code skus} are parallel arrays.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final String[] skus;
+        private final int mask;
+        private int size;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            skus = new String[capacity];
+            mask = capacity - 1;
+        }
+
+        private String get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long candidate = keys[slot];
+                if (candidate == key) {
+                    return skus[slot];
+                }
+                if (candidate == EMPTY) {
+                    return null;
+                }
+            }
+        }
+
+        private void put(long key, String sku) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long candidate = keys[slot];
+                if (candidate == key) {
+                    skus[slot] = sku;
+                    return;
+                }
+                if (candidate == EMPTY) {
+                    skus[slot] = sku; // Value first, so a key is never visible without its SKU
+                    keys[slot] = key;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        private Table resize() {
+            Table larger = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    larger.put(keys[i], skus[i]);
+                }
+            }
+            return larger;
+        }
+
+        private int slot(long key) {
+            // Spread the bits of the key (MurmurHash3 finalizer) so consecutive codes do not cluster
+            long h = key;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return (int) h & mask;
+        }
+    }
+}
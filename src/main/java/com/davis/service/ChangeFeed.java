@@ -0,0 +1,122 @@
+package com.davis.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import com.davis.dto.ChangeSet;
+import com.davis.exception.InvalidRequestException;
+import com.davis.model.ChangeTimestamps;
+
+/**
+ * Shared logic of the change feeds of products, suppliers and inventory items.
+ *
+ * A feed is read with a keyset on {@code (updatedOn, id)}: the sync token holds the position of
+ * the last row a client received, and the next request continues strictly after it. Rows changed
+ * in the last {@value #SETTLE_SECONDS} seconds are held back. A transaction stamps its rows
+ * before it commits, so without this lag a client could read past a timestamp whose rows are
+ * not yet visible and never receive them.
+ */
+final class ChangeFeed {
+
+    static final int DEFAULT_LIMIT = 500; // Rows per response when the client asks for no limit
+    static final int MAX_LIMIT = 1000; // Largest number of rows per response
+    static final long SETTLE_SECONDS = 30; // Age a change must reach before it is handed out
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0); // Position of a first sync
+    private static final char SEPARATOR = '|';
+
+    private static volatile Clock clock = Clock.systemUTC(); // Clock of the settle cutoff
+
+    private ChangeFeed() {
+    }
+
+    /**
+     * A position in a change feed: the last update date and ID of the last row received.
+     */
+    static final class Position {
+        final LocalDateTime since;
+        final String after;
+
+        private Position(LocalDateTime since, String after) {
+            this.since = since;
+            this.after = after;
+        }
+    }
+
+    /**
+     * Decodes a sync token.
+     *
+     * @param token The token of the client, or null (or empty) for a first sync.
+     * @return The position after which the changes start.
+     * @throws InvalidRequestException If the token is not one handed out by a change feed.
+     */
+    static Position parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return new Position(BEGINNING, "");
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator > 0) {
+                return new Position(LocalDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Reported below
+        }
+        throw new InvalidRequestException("Invalid sync token: " + token);
+    }
+
+    /**
+     * @return The latest update date that is old enough to be handed out.
+     */
+    static LocalDateTime settledUntil() {
+        return ChangeTimestamps.now(clock).minusSeconds(SETTLE_SECONDS);
+    }
+
+    /**
+     * Sets the clock the settle cutoff is computed from, so tests can move past it without waiting.
+     *
+     * @param feedClock The clock to use; {@link Clock#systemUTC()} by default.
+     */
+    static void setClock(Clock feedClock) {
+        clock = feedClock;
+    }
+
+    /**
+     * @param limit The number of rows requested by the client.
+     * @return The number of rows to return, between 1 and {@value #MAX_LIMIT}.
+     */
+    static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Builds the response from rows read with one row more than the page size.
+     *
+     * @param from      The position the rows were read from.
+     * @param pageSize  The number of rows to return.
+     * @param rows      The rows read, in feed order; at most {@code pageSize + 1}.
+     * @param updatedOn Returns the last update date of a row.
+     * @param id        Returns the ID of a row.
+     * @return The changes and the token of the next request.
+     */
+    static <T> ChangeSet<T> page(Position from, int pageSize, List<T> rows,
+            Function<T, LocalDateTime> updatedOn, Function<T, String> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        if (items.isEmpty()) {
+            return new ChangeSet<>(items, token(from.since, from.after), false);
+        }
+        T last = items.get(items.size() - 1);
+        return new ChangeSet<>(items, token(updatedOn.apply(last), id.apply(last)), hasMore);
+    }
+
+    private static String token(LocalDateTime since, String after) {
+        String position = since.toString() + SEPARATOR + after;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package com.davis.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps a version counter per data collection, bumped by the services whenever they write to it.
+ * The counters are turned into strong ETags, which lets controllers answer conditional GET
+ * requests ({@code If-None-Match}) with 304 Not Modified before doing any database or
+ * serialization work.
+ *
+ * The counters live in this process: every ETag carries the start time of the process, so ETags
+ * issued before a restart never match. Changes made to the database outside the services are not seen.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class CollectionVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36); // Distinguishes process restarts
+
+    private final Map<DataCollection, AtomicLong> versions = new EnumMap<>(DataCollection.class);
+
+    public CollectionVersions() {
+        for (DataCollection collection : DataCollection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    /**
+     * Records a change to the given collection.
+     * Inside a transaction the version is bumped only after the transaction commits, so a client
+     * can never receive the new ETag together with the old data.
+     *
+     * @param collection The collection that changed.
+     */
+    public void bump(DataCollection collection) {
+        AtomicLong version = versions.get(collection);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a strong ETag covering the current versions of the given collections.
+     * A response built from several collections (e.g. products embedding their supplier and
+     * category) must pass all of them, so that a change to any of them changes the ETag.
+     *
+     * @param collections The collections the response is built from.
+     * @return The quoted ETag value.
+     */
+    public String etag(DataCollection... collections) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (DataCollection collection : collections) {
+            etag.append('-').append(versions.get(collection).get());
+        }
+        return etag.append('"').toString();
+    }
+}
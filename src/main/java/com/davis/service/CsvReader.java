@@ -0,0 +1,133 @@
+package com.davis.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming reader of CSV data (RFC 4180): comma separated fields, optionally enclosed in
+ * double quotes, with doubled quotes inside quoted fields and line breaks allowed inside them.
+ * Records are read one at a time, so only the current record is held in memory. A byte order mark
+ * at the start of the data, as written by spreadsheet programs saving "CSV UTF-8", is skipped.
+ */
+final class CsvReader {
+
+    static final int MAX_RECORD_LENGTH = 65536; // Longest record accepted, in characters
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position; // Next character to read from the buffer
+    private int limit; // Number of characters in the buffer
+    private int line = 1; // Line the reader is on
+    private int recordLine; // Line the last record started on
+    private boolean started; // Whether a leading byte order mark has been checked for
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return The line on which the record last returned by {@link #readRecord()} started.
+     */
+    int getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Reads the next record, skipping blank lines.
+     *
+     * @return The fields of the record, or null at the end of the data.
+     * @throws IOException If the data cannot be read, a quoted field is not closed, or a record
+     *                     is longer than {@value #MAX_RECORD_LENGTH} characters.
+     */
+    List<String> readRecord() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') {
+                read();
+            }
+        }
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineBreak(c);
+            c = read();
+        }
+        if (c < 0) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("Record on line " + recordLine + " is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Quoted field starting on line " + recordLine + " is not closed");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        field.append('"'); // Escaped quote
+                    } else {
+                        quoted = false;
+                        continue; // Re-examine the character after the closing quote
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\r' || c == '\n') {
+                fields.add(field.toString());
+                if (c >= 0) {
+                    skipLineBreak(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Completes a line break ("\n", "\r" or "\r\n") whose first character has been read.
+     */
+    private void skipLineBreak(int c) throws IOException {
+        line++;
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
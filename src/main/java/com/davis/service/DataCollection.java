@@ -0,0 +1,11 @@
+package com.davis.service;
+
+/**
+ * Collections of data whose changes are tracked by {@link CollectionVersions}.
+ */
+public enum DataCollection {
+	PRODUCTS,
+	PRODUCT_CATEGORIES,
+	SUPPLIERS,
+	INVENTORY
+}
@@ -0,0 +1,348 @@
+package com.davis.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import com.davis.dto.ImportReport;
+import com.davis.dto.ImportRowError;
+import com.davis.model.Inventory;
+import com.davis.model.Product;
+import com.davis.model.Status;
+import com.davis.model.Supplier;
+
+/**
+ * Service class for importing goods-received notes (CSV files) as inventory items.
+ *
+ * The file is read as a stream, in chunks of {@value #CHUNK_SIZE} rows. For each chunk the
+ * referenced products and suppliers are checked with one IN query each, the inventory IDs are
+ * reserved as one range, and the rows are inserted in one transaction with JDBC batching. The
+ * next chunk is only read once the current one is stored, so memory use is bounded by the chunk
+ * size and a client sending faster than the database can store is slowed down by the connection.
+ *
+ * Rejected rows are reported with their line number and do not stop the import. If the database
+ * refuses a chunk, its rows are stored one by one, so only the refused rows are reported.
+ *
+ * The first line of the file names the columns. Required columns are "product" (SKU),
+ * "supplier" (supplier ID) and "unitsAvailable" (or "quantity"); optional ones are
+ * "unitSellingPrice", "totalUnitsPurchased", "totalCost", "incomingQuantity",
+ * "reOrderPoint" and "expiryDate". Column names are case-insensitive; a leading byte order mark
+ * is ignored.
+ *
+ * @Service Indicates that this class is a Spring-managed service component.
+ */
+@Service
+public class InventoryImportService {
+
+    /**
+     * Number of rows looked up and inserted together.
+     */
+    public static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Largest number of rejected rows listed in a report; further ones are only counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private InventoryService inventoryService; // Reserves the inventory IDs and stores the rows
+
+    @Autowired
+    private ProductService productService; // Checks the referenced products
+
+    @Autowired
+    private SupplierService supplierService; // Checks the referenced suppliers
+
+    /**
+     * Imports the inventory items of a goods-received note.
+     *
+     * @param csv The content of the CSV file.
+     * @return The import report.
+     */
+    public ImportReport importReceipts(Reader csv) {
+        Progress progress = new Progress();
+        CsvReader reader = new CsvReader(csv);
+        boolean completed = true;
+        try {
+            Map<Column, Integer> columns = readHeader(reader.readRecord());
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                progress.rowsRead++;
+                try {
+                    chunk.add(new Row(reader.getRecordLine(), parse(record, columns)));
+                } catch (IllegalArgumentException e) {
+                    progress.fail(reader.getRecordLine(), e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, progress);
+        } catch (IOException | IllegalArgumentException e) {
+            // The file cannot be read any further; the rows stored so far are kept
+            progress.fail(reader.getRecordLine(), e.getMessage());
+            completed = false;
+        }
+        return progress.toReport(completed);
+    }
+
+    /**
+     * Maps the columns named in the header to their positions.
+     */
+    private Map<Column, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        Map<Column, Integer> columns = new EnumMap<>(Column.class);
+        for (int i = 0; i < header.size(); i++) {
+            Column column = Column.forName(header.get(i));
+            if (column != null) {
+                columns.put(column, i);
+            }
+        }
+        for (Column column : Column.values()) {
+            if (column.required && !columns.containsKey(column)) {
+                throw new IllegalArgumentException("Missing column " + column.names[0]);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Builds the inventory item of a row; product and supplier only carry their keys.
+     *
+     * @throws IllegalArgumentException If a required value is missing or a value is malformed.
+     */
+    private Inventory parse(List<String> record, Map<Column, Integer> columns) {
+        Inventory inventory = new Inventory();
+        for (Map.Entry<Column, Integer> column : columns.entrySet()) {
+            String value = column.getValue() < record.size() ? record.get(column.getValue()).trim() : "";
+            if (value.isEmpty()) {
+                if (column.getKey().required) {
+                    throw new IllegalArgumentException("Missing " + column.getKey().names[0]);
+                }
+                continue;
+            }
+            try {
+                column.getKey().apply(inventory, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column.getKey().names[0] + " '" + value + "'");
+            }
+        }
+        if (inventory.getUnitsAvailable() < 0) {
+            throw new IllegalArgumentException("Negative " + Column.UNITS_AVAILABLE.names[0]);
+        }
+        return inventory;
+    }
+
+    /**
+     * Checks the references of a chunk of rows, reserves their IDs and stores the valid ones.
+     */
+    private void importChunk(List<Row> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // One IN query per referenced table for the whole chunk
+        Set<String> skus = new HashSet<>();
+        Set<String> supplierIds = new HashSet<>();
+        for (Row row : chunk) {
+            skus.add(row.inventory.getProduct().getProductSKU());
+            supplierIds.add(row.inventory.getSupplier().getSupplierId());
+        }
+        Set<String> knownSkus = productService.getExistingSkus(skus);
+        Set<String> knownSuppliers = new HashSet<>();
+        for (Supplier supplier : supplierService.getSupplies(supplierIds)) {
+            knownSuppliers.add(supplier.getSupplierId());
+        }
+
+        List<Inventory> valid = new ArrayList<>(chunk.size());
+        List<Row> validRows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String sku = row.inventory.getProduct().getProductSKU();
+            String supplierId = row.inventory.getSupplier().getSupplierId();
+            if (!knownSkus.contains(sku)) {
+                progress.fail(row.line, "Unknown product " + sku);
+            } else if (!knownSuppliers.contains(supplierId)) {
+                progress.fail(row.line, "Unknown supplier " + supplierId);
+            } else {
+                valid.add(row.inventory);
+                validRows.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Reserve the IDs as one range and set the status
+        List<String> ids = inventoryService.reserveInventoryIds(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            Inventory inventory = valid.get(i);
+            inventory.setInventoryId(ids.get(i));
+            inventory.setStatus(Status.ACTIVE.toString().toUpperCase());
+        }
+
+        try {
+            inventoryService.addInventories(valid);
+            progress.rowsImported += valid.size();
+            return;
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // Logs the exception; the chunk was rolled back
+        }
+
+        // Store the rows one by one, each in its own transaction, so only the refused ones are lost
+        for (Row row : validRows) {
+            try {
+                inventoryService.addInventories(Collections.singletonList(row.inventory));
+                progress.rowsImported++;
+            } catch (RuntimeException e) {
+                progress.fail(row.line, "Not imported: " + rootMessage(e));
+            }
+        }
+    }
+
+    /**
+     * Returns the message of the innermost cause, which names the refused value or constraint.
+     */
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    /**
+     * A parsed row and the line it starts on.
+     */
+    private static final class Row {
+        private final int line;
+        private final Inventory inventory;
+
+        private Row(int line, Inventory inventory) {
+            this.line = line;
+            this.inventory = inventory;
+        }
+    }
+
+    /**
+     * Counters and errors of a running import.
+     */
+    private static final class Progress {
+        private final long start = System.nanoTime();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private int rowsRead;
+        private int rowsImported;
+        private int rowsFailed;
+
+        private void fail(int line, String error) {
+            rowsFailed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(line, error));
+            }
+        }
+
+        private ImportReport toReport(boolean completed) {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            errors.sort(Comparator.comparingInt(ImportRowError::getLine)); // Lookup errors are found after parse errors
+            return new ImportReport(rowsRead, rowsImported, rowsFailed, elapsedMillis, errors, completed);
+        }
+    }
+
+    /**
+     * Columns of a goods-received note and how their values are applied to an inventory item.
+     */
+    private enum Column {
+        PRODUCT(true, "product", "sku") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                Product product = new Product();
+                product.setProductSKU(value);
+                inventory.setProduct(product);
+            }
+        },
+        SUPPLIER(true, "supplier", "supplierId") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                Supplier supplier = new Supplier();
+                supplier.setSupplierId(value);
+                inventory.setSupplier(supplier);
+            }
+        },
+        UNITS_AVAILABLE(true, "unitsAvailable", "quantity") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setUnitsAvailable(Integer.parseInt(value));
+            }
+        },
+        UNIT_SELLING_PRICE(false, "unitSellingPrice") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setUnitSellingPrice(Double.parseDouble(value));
+            }
+        },
+        TOTAL_UNITS_PURCHASED(false, "totalUnitsPurchased") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setTotalUnitsPurchased(Integer.parseInt(value));
+            }
+        },
+        TOTAL_COST(false, "totalCost") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setTotalCost(Double.parseDouble(value));
+            }
+        },
+        INCOMING_QUANTITY(false, "incomingQuantity") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setIncomingQuantity(Integer.parseInt(value));
+            }
+        },
+        REORDER_POINT(false, "reOrderPoint") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setReOrderPoint(Integer.parseInt(value));
+            }
+        },
+        EXPIRY_DATE(false, "expiryDate") {
+            @Override
+            void apply(Inventory inventory, String value) {
+                inventory.setExpiryDate(value);
+            }
+        };
+
+        private final boolean required;
+        private final String[] names; // Accepted header names, the first one is used in messages
+
+        Column(boolean required, String... names) {
+            this.required = required;
+            this.names = names;
+        }
+
+        abstract void apply(Inventory inventory, String value);
+
+        static Column forName(String header) {
+            String name = header.trim().toLowerCase(Locale.ROOT);
+            for (Column column : values()) {
+                for (String candidate : column.names) {
+                    if (candidate.toLowerCase(Locale.ROOT).equals(name)) {
+                        return column;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
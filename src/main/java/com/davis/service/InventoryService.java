@@ -2,14 +2,28 @@ package com.davis.service;
 
 import java.time.LocalDateTime;
 import java.time.Year;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.davis.dao.InventoryDao;
+import com.davis.dto.ChangeSet;
+import com.davis.dto.InventorySummary;
+import com.davis.dto.ReorderAlert;
+import com.davis.exception.ConflictException;
+import com.davis.exception.InvalidRequestException;
+import com.davis.exception.NotFoundException;
+import com.davis.model.ChangeTimestamps;
+import com.davis.model.IdFormatter;
 import com.davis.model.IdGeneration;
+import com.davis.model.IdRange;
 import com.davis.model.Inventory;
 import com.davis.model.Status;
 
@@ -31,6 +45,12 @@ public class InventoryService {
     @Autowired
     private InventoryDao inventoryDao; // Data access object for inventory-related operations
 
+    @Autowired
+    private CollectionVersions collectionVersions; // Version counters behind the ETags
+
+    @Autowired
+    private ReorderAlerts reorderAlerts; // Items at or below their reorder point
+
     /**
      * Adds a new inventory item to the system.
      * Generates a unique inventory ID, sets the creation date and status,
@@ -40,18 +60,202 @@ public class InventoryService {
      * @return The added inventory item.
      */
     public Inventory addInventory(Inventory inventory) {
+        prepareInventory(inventory);
+
+        // Save the inventory item using the DAO; the version is bumped once the transaction commits
+        List<ReorderAlert> levels = stockLevels(Collections.singletonList(inventory));
+        Inventory saved = inventoryDao.addInventory(inventory);
+        collectionVersions.bump(DataCollection.INVENTORY);
+        reorderAlerts.stockChanged(levels);
+        return saved;
+    }
+
+    /**
+     * Prepares a new inventory item for saving: generates its unique inventory ID
+     * and sets its status.
+     *
+     * @param inventory The inventory item to be prepared.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS) // Needs no transaction of its own
+    public void prepareInventory(Inventory inventory) {
         // Generate a unique inventory ID
         int year = Year.now().getValue();
         long id = idGeneration.getNextIdNumber("inventoryId");
-        inventory.setInventoryId(getInventoryId(id, year));
+        inventory.setInventoryId(IdFormatter.formatInventoryId(id, year));
 
-        // Set the creation date and status
-        LocalDateTime now = LocalDateTime.now();
-        inventory.setCreatedOn(Date.from(now.atZone(ZoneId.systemDefault()).toInstant()).toString());
+        // Set the status; the creation date is set by the entity when it is persisted
         inventory.setStatus(Status.ACTIVE.toString().toUpperCase());
+    }
+
+    /**
+     * Adds a batch of inventory items in one transaction, using JDBC batching.
+     * The items must already have their IDs (see {@link #reserveInventoryIds(int)}), and their
+     * product and supplier must exist; only the keys of these are used.
+     *
+     * @param items The inventory items to be added.
+     * @return The added inventory items.
+     */
+    public List<Inventory> addInventories(List<Inventory> items) {
+        List<ReorderAlert> levels = stockLevels(items);
+        List<Inventory> saved = inventoryDao.addInventories(items);
+        collectionVersions.bump(DataCollection.INVENTORY);
+        reorderAlerts.stockChanged(levels);
+        return saved;
+    }
+
+    /**
+     * Reserves units of an inventory item, e.g. for an order that is being paid for.
+     * The check and the change are one conditional UPDATE, so concurrent reservations of the same
+     * item are serialized by the database row lock for the duration of that statement only,
+     * and the reserved units can never exceed the units available.
+     *
+     * @param id    The ID of the inventory item.
+     * @param units The number of units to reserve.
+     * @return The inventory item after the reservation.
+     * @throws NotFoundException If the item does not exist.
+     * @throws ConflictException If fewer than {@code units} units are available and not reserved.
+     */
+    public InventorySummary reserveUnits(String id, int units) {
+        checkUnits(units);
+        if (inventoryDao.reserveUnits(id, units) == 0) {
+            throw rejected(id, "Not enough unreserved units of " + id + " to reserve " + units);
+        }
+        collectionVersions.bump(DataCollection.INVENTORY);
+        return inventoryDao.getInventorySummary(id);
+    }
+
+    /**
+     * Releases units of an inventory item reserved earlier, e.g. for a cancelled order.
+     * Like {@link #reserveUnits(String, int)}, this is a single conditional UPDATE.
+     *
+     * @param id    The ID of the inventory item.
+     * @param units The number of units to release.
+     * @return The inventory item after the release.
+     * @throws NotFoundException If the item does not exist.
+     * @throws ConflictException If fewer than {@code units} units are reserved.
+     */
+    public InventorySummary releaseUnits(String id, int units) {
+        checkUnits(units);
+        if (inventoryDao.releaseUnits(id, units) == 0) {
+            throw rejected(id, "Fewer than " + units + " units of " + id + " are reserved");
+        }
+        collectionVersions.bump(DataCollection.INVENTORY);
+        return inventoryDao.getInventorySummary(id);
+    }
+
+    /**
+     * Sells units of an inventory item, taking them out of stock immediately.
+     * Like {@link #reserveUnits(String, int)}, this is a single conditional UPDATE; only units that
+     * are not reserved can be sold.
+     *
+     * @param id    The ID of the inventory item.
+     * @param units The number of units sold.
+     * @return The inventory item after the sale.
+     * @throws NotFoundException If the item does not exist.
+     * @throws ConflictException If fewer than {@code units} unreserved units are in stock.
+     */
+    public InventorySummary sellUnits(String id, int units) {
+        checkUnits(units);
+        if (inventoryDao.sellUnits(id, units) == 0) {
+            throw rejected(id, "Not enough unreserved units of " + id + " to sell " + units);
+        }
+        collectionVersions.bump(DataCollection.INVENTORY);
+        InventorySummary sold = inventoryDao.getInventorySummary(id);
+        reorderAlerts.stockChanged(Collections.singletonList(new ReorderAlert(id, sold.getProductSKU(),
+                sold.getUnitsAvailable(), sold.getReOrderPoint(), ChangeTimestamps.now())));
+        return sold;
+    }
+
+    /**
+     * Applies sales recorded in memory, together with the journal marker, in one transaction:
+     * either the sales of the segment and the marker are both stored or neither is.
+     *
+     * @param unitsSold The units sold per inventory item ID.
+     * @param journal   The name of the journal marker row in ID_Gen.
+     * @param segment   The last journal segment included in {@code unitsSold}.
+     * @return The IDs among {@code unitsSold} that match no inventory item (deleted items); their sales are not applied.
+     * @throws IllegalStateException If the marker row is missing or already at or past {@code segment};
+     *                               nothing is applied then.
+     */
+    public Set<String> applyUnitsSold(Map<String, Long> unitsSold, String journal, long segment) {
+        Set<String> unmatched = inventoryDao.subtractUnits(unitsSold);
+        if (inventoryDao.setJournalMarker(journal, segment) == 0) {
+            // Rolls back the sales as well
+            throw new IllegalStateException("Journal marker " + journal + " is missing or already past segment " + segment);
+        }
+        collectionVersions.bump(DataCollection.INVENTORY);
+        // The new levels are read back by primary key; the items were just updated, so the rows are at hand
+        reorderAlerts.stockChanged(inventoryDao.getReorderAlerts(unitsSold.keySet()));
+        return unmatched;
+    }
+
+    /**
+     * Returns the last journal segment whose sales were applied.
+     *
+     * @param journal The name of the journal marker row in ID_Gen.
+     * @return The segment number, or null if the marker row does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Long getJournalMarker(String journal) {
+        return inventoryDao.getJournalMarker(journal);
+    }
+
+    /**
+     * Retrieves the summary of a single inventory item.
+     *
+     * @param id The ID of the inventory item.
+     * @return The summary, or null if the item does not exist.
+     */
+    @Transactional(readOnly = true)
+    public InventorySummary getInventorySummary(String id) {
+        return inventoryDao.getInventorySummary(id);
+    }
+
+    /**
+     * Returns the units of inventory items that can still be sold: in stock and not reserved.
+     *
+     * @param ids The IDs of the inventory items.
+     * @return The sellable units per ID; items that do not exist are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getSellableUnits(Collection<String> ids) {
+        return inventoryDao.getSellableUnits(ids);
+    }
+
+    /**
+     * Returns the stock levels of new inventory items that are due for reordering.
+     * They are taken before the items are saved: saving may replace the products by references
+     * that cannot be read once the persistence context is cleared.
+     */
+    private static List<ReorderAlert> stockLevels(List<Inventory> items) {
+        List<ReorderAlert> levels = new ArrayList<>();
+        LocalDateTime now = ChangeTimestamps.now();
+        for (Inventory item : items) {
+            ReorderAlert level = new ReorderAlert(item.getInventoryId(),
+                    item.getProduct() == null ? null : item.getProduct().getProductSKU(),
+                    item.getUnitsAvailable(), item.getReOrderPoint(), now);
+            if (ReorderAlerts.isDue(level)) {
+                levels.add(level);
+            }
+        }
+        return levels;
+    }
+
+    private static void checkUnits(int units) {
+        if (units < 1) {
+            throw new InvalidRequestException("units must be at least 1");
+        }
+    }
 
-        // Save the inventory item using the DAO
-        return inventoryDao.addInventory(inventory);
+    /**
+     * Builds the exception for a reservation or release that changed no row:
+     * either the item does not exist, or its units did not allow the change.
+     */
+    private RuntimeException rejected(String id, String conflict) {
+        if (inventoryDao.getInventorySummary(id) == null) {
+            return new NotFoundException("No inventory item " + id);
+        }
+        return new ConflictException(conflict);
     }
 
     /**
@@ -64,24 +268,59 @@ public class InventoryService {
     }
 
     /**
-     * Generates a unique inventory ID based on the given ID and year.
-     * The ID is formatted to ensure it has a consistent length and includes the current year.
+     * Retrieves a read-only summary of every inventory item in the system.
+     * The summaries are built directly by a projection query, which is cheaper than loading
+     * and serializing the full entity graph.
      *
-     * @param id    The unique ID number.
-     * @param year  The current year.
-     * @return      A formatted inventory ID.
-     */
-    private String getInventoryId(long id, int year) {
-        if (id <= 9) {
-            return "IN0000" + id + "" + year;
-        } else if (id >= 10 && id <= 99) {
-            return "IN000" + id + "" + year;
-        } else if (id >= 100 && id <= 999) {
-            return "IN00" + id + "" + year;
-        } else if (id >= 1000 && id <= 9999) {
-            return "IN0" + id + "" + year;
-        } else {
-            return "IN" + id + "" + year;
+     * @return A list of inventory item summaries.
+     */
+    @Transactional(readOnly = true)
+    public List<InventorySummary> getInventorySummaries() {
+        return inventoryDao.getInventorySummaries();
+    }
+
+    /**
+     * Retrieves the inventory items added or changed since the client's last synchronization, oldest change first.
+     * Changes of the last {@value ChangeFeed#SETTLE_SECONDS} seconds are held back until no transaction can still be writing them.
+     *
+     * @param since The {@code nextToken} of the previous response, or null for a first synchronization.
+     * @param limit The maximum number of inventory items to return (capped at {@value ChangeFeed#MAX_LIMIT}).
+     * @return The changed inventory items and the token of the next request.
+     */
+    @Transactional(readOnly = true)
+    public ChangeSet<Inventory> getInventoryChanges(String since, int limit) {
+        ChangeFeed.Position from = ChangeFeed.parse(since);
+        int pageSize = ChangeFeed.pageSize(limit);
+
+        // Fetch one extra row to find out whether more changes follow
+        List<Inventory> rows = inventoryDao.getChangesSince(from.since, from.after, ChangeFeed.settledUntil(), pageSize + 1);
+        return ChangeFeed.page(from, pageSize, rows, Inventory::getUpdatedOn, Inventory::getInventoryId);
+    }
+
+    /**
+     * Hands every inventory item in the system to the given consumer, one at a time,
+     * without loading the complete list into memory.
+     *
+     * @param consumer The consumer receiving the inventory items.
+     */
+    @Transactional(readOnly = true)
+    public void exportInventory(Consumer<? super Inventory> consumer) {
+        inventoryDao.streamInventory(consumer);
+    }
+
+    /**
+     * Reserves inventory IDs for a batch of inventory items in a single sequence reservation.
+     *
+     * @param count The number of IDs to reserve.
+     * @return The formatted inventory IDs, in sequence order.
+     */
+    public List<String> reserveInventoryIds(int count) {
+        int year = Year.now().getValue();
+        IdRange range = idGeneration.getNextIdNumbers("inventoryId", count);
+        List<String> ids = new ArrayList<>(range.size());
+        for (int i = 0; i < range.size(); i++) {
+            ids.add(IdFormatter.formatInventoryId(range.get(i), year));
         }
+        return ids;
     }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package com.davis.service;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import com.davis.dto.QueuedWrite;
+import com.davis.dto.WriteBehindMetrics;
+import com.davis.exception.InvalidRequestException;
+import com.davis.model.Inventory;
+
+/**
+ * Write-behind queue for inventory receipts.
+ * A receipt is validated and given its inventory ID while the client waits, then put on a bounded
+ * in-memory queue. A single background flusher takes whatever has accumulated on the queue (up to
+ * {@value #MAX_BATCH_SIZE} receipts) and stores it in one batched transaction.
+ *
+ * Durability: a queued receipt lives only in memory until the flusher has committed it, normally
+ * well under a second later. It is lost if the process stops abnormally before then. On a regular
+ * shutdown the queue is drained first.
+ *
+ * If the database is unavailable, the flusher keeps the receipts of the failed batch and tries them
+ * again with a growing delay (up to {@value #MAX_RETRY_DELAY_MILLIS} ms) until the database is back;
+ * new receipts keep queueing meanwhile, and once the queue is full they are written synchronously.
+ * Only a receipt the database refuses (a constraint violation or invalid data) is dropped; it is
+ * counted as failed.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class InventoryWriteBehind {
+
+    /**
+     * Maximum number of receipts waiting to be written.
+     */
+    public static final int CAPACITY = 10000;
+
+    /**
+     * Maximum number of receipts written in one transaction.
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Guarantee given to clients whose receipt was queued.
+     */
+    public static final String DURABILITY = "Accepted in memory only. The receipt is written to the database "
+            + "shortly, usually within a second, under the returned ID. It is lost if the server stops "
+            + "abnormally before then, or dropped if the database refuses it; it appears in GET /inventory/ "
+            + "once written. GET /metrics/inventory-write-behind shows receipts waiting or failed.";
+
+    /**
+     * Longest delay between two attempts to write receipts while the database is unavailable.
+     */
+    public static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 30; // Time allowed to empty the queue on shutdown
+    private static final long POLL_MILLIS = 200; // Time the idle flusher waits before checking for shutdown
+    private static final long MIN_RETRY_DELAY_MILLIS = 500; // First delay after the database was unavailable
+
+    @Autowired
+    private InventoryService inventoryService; // Assigns IDs and stores the receipts
+
+    @Autowired
+    private ProductService productService; // Validates the product of a receipt
+
+    @Autowired
+    private SupplierService supplierService; // Validates the supplier of a receipt
+
+    private final BlockingQueue<QueuedReceipt> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile int retrying; // Receipts held by the flusher until the database is available again
+    private volatile long oldestRetryingAt; // Time the oldest held receipt was queued
+
+    private volatile boolean stopping; // Set on shutdown; no new receipts are queued
+    private Thread flusher;
+
+    /**
+     * Starts the background flusher.
+     */
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::flushLoop, "inventory-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting receipts and waits for the flusher to write the ones still queued.
+     * Receipts not written within the drain timeout are lost; until then they are visible in the metrics.
+     */
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(DRAIN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Validates an inventory receipt, assigns its ID and queues it for writing.
+     *
+     * @param inventory The inventory item to be added.
+     * @return The acknowledgement, or null if the queue is full (or shutting down) and the
+     *         receipt has to be written synchronously instead.
+     * @throws InvalidRequestException If the receipt refers to an unknown product or supplier.
+     */
+    public QueuedWrite submit(Inventory inventory) {
+        if (stopping || queue.remainingCapacity() == 0) {
+            rejected.increment();
+            return null;
+        }
+        // Errors can no longer be reported once queued, so the references are checked now
+        validate(inventory);
+        inventoryService.prepareInventory(inventory);
+        if (!queue.offer(new QueuedReceipt(inventory))) {
+            rejected.increment(); // Filled up in the meantime; the caller writes it with its ID
+            return null;
+        }
+        accepted.increment();
+        return new QueuedWrite(inventory.getInventoryId(), queue.size(), DURABILITY);
+    }
+
+    /**
+     * Returns a snapshot of the queue counters.
+     *
+     * @return The write-behind metrics.
+     */
+    public WriteBehindMetrics getMetrics() {
+        // Held receipts were queued before everything still on the queue
+        QueuedReceipt oldest = queue.peek();
+        long oldestQueuedAt = retrying > 0 ? oldestRetryingAt : oldest == null ? 0 : oldest.queuedAt;
+        long oldestWaitMillis = oldestQueuedAt == 0 ? 0
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestQueuedAt);
+        return new WriteBehindMetrics(queue.size(), CAPACITY, accepted.sum(), written.sum(), failed.sum(),
+                rejected.sum(), batches.sum(), retrying, oldestWaitMillis);
+    }
+
+    private void validate(Inventory inventory) {
+        if (inventory.getProduct() == null || inventory.getProduct().getProductSKU() == null) {
+            throw new InvalidRequestException("The receipt has no product");
+        }
+        if (productService.getProduct(inventory.getProduct().getProductSKU()) == null) {
+            throw new InvalidRequestException("Unknown product " + inventory.getProduct().getProductSKU());
+        }
+        if (inventory.getSupplier() != null && inventory.getSupplier().getSupplierId() != null
+                && supplierService.getSupplier(inventory.getSupplier().getSupplierId()) == null) {
+            throw new InvalidRequestException("Unknown supplier " + inventory.getSupplier().getSupplierId());
+        }
+        if (inventory.getUnitsAvailable() < 0) {
+            throw new InvalidRequestException("Negative unitsAvailable");
+        }
+    }
+
+    /**
+     * Writes queued receipts until shutdown is requested and the queue is empty.
+     * Receipts that could not be written because the database is unavailable are held and tried
+     * again, together with whatever was queued meanwhile, after a growing delay.
+     */
+    private void flushLoop() {
+        List<QueuedReceipt> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        List<QueuedReceipt> held = new ArrayList<>(MAX_BATCH_SIZE);
+        long retryDelayMillis = 0;
+        while (true) {
+            if (held.isEmpty()) {
+                QueuedReceipt first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    if (stopping) {
+                        first = queue.poll(); // Keep draining; the thread is only left once the queue is empty
+                    } else {
+                        continue;
+                    }
+                }
+                if (first == null) {
+                    if (stopping) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+            } else {
+                // Wait before trying the database again; interrupts do not cut the delay short
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryDelayMillis));
+                batch.addAll(held);
+                held.clear();
+            }
+            // Everything that accumulated while the previous batch was written goes into this one
+            queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+            held.addAll(write(batch));
+            batch.clear();
+
+            if (held.isEmpty()) {
+                retryDelayMillis = 0;
+                retrying = 0;
+            } else {
+                retryDelayMillis = Math.min(Math.max(retryDelayMillis * 2, MIN_RETRY_DELAY_MILLIS),
+                        MAX_RETRY_DELAY_MILLIS);
+                oldestRetryingAt = held.get(0).queuedAt;
+                retrying = held.size();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of receipts in one transaction; if that fails because of a refused receipt,
+     * the receipts are written one by one so the others are not lost with it.
+     *
+     * @param batch The receipts, oldest first.
+     * @return The receipts that could not be written because the database is unavailable.
+     */
+    private List<QueuedReceipt> write(List<QueuedReceipt> batch) {
+        batches.increment();
+        List<Inventory> items = new ArrayList<>(batch.size());
+        for (QueuedReceipt receipt : batch) {
+            items.add(receipt.inventory);
+        }
+        try {
+            inventoryService.addInventories(items);
+            written.add(items.size());
+            return Collections.emptyList();
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // Logs the exception; the batch was rolled back
+            if (!isRefused(e)) {
+                return new ArrayList<>(batch); // The database is unavailable; keep everything for later
+            }
+        }
+        List<QueuedReceipt> held = new ArrayList<>();
+        for (QueuedReceipt receipt : batch) {
+            try {
+                inventoryService.addInventories(Collections.singletonList(receipt.inventory));
+                written.increment();
+            } catch (RuntimeException itemError) {
+                itemError.printStackTrace(); // Logs the exception
+                if (isRefused(itemError)) {
+                    failed.increment(); // The receipt itself is refused and is dropped
+                } else {
+                    held.add(receipt);
+                }
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Tells whether the database refused the data itself, as opposed to being unavailable.
+     */
+    private static boolean isRefused(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof DataException
+                    || cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A queued receipt and the time it was queued.
+     */
+    private static final class QueuedReceipt {
+        private final Inventory inventory;
+        private final long queuedAt = System.nanoTime();
+
+        private QueuedReceipt(Inventory inventory) {
+            this.inventory = inventory;
+        }
+    }
+}
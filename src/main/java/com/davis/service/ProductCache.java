@@ -0,0 +1,78 @@
+package com.davis.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import com.davis.dto.CacheMetrics;
+import com.davis.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded in-process cache of products keyed by SKU, placed in front of the product DAO.
+ * Entries expire after a fixed time and the least valuable entries are evicted once the size
+ * limit is reached. Unknown SKUs are cached as well, for a much shorter time, so that repeated
+ * lookups of a missing SKU do not reach the database every time.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class ProductCache {
+
+    static final long MAXIMUM_SIZE = 50_000; // Maximum number of cached SKUs
+    static final long TTL_SECONDS = 600; // Lifetime of a cached product
+    static final long NEGATIVE_TTL_SECONDS = 30; // Lifetime of a cached unknown SKU
+
+    private final Cache<String, Optional<Product>> cache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfter(new Expiry<String, Optional<Product>>() {
+                @Override
+                public long expireAfterCreate(String sku, Optional<Product> product, long currentTime) {
+                    return TimeUnit.SECONDS.toNanos(product.isPresent() ? TTL_SECONDS : NEGATIVE_TTL_SECONDS);
+                }
+
+                @Override
+                public long expireAfterUpdate(String sku, Optional<Product> product, long currentTime,
+                        long currentDuration) {
+                    return expireAfterCreate(sku, product, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String sku, Optional<Product> product, long currentTime,
+                        long currentDuration) {
+                    return currentDuration; // Reads do not extend the lifetime
+                }
+            })
+            .recordStats()
+            .build();
+
+    /**
+     * Returns the product with the given SKU, loading it with the given loader on a cache miss.
+     * Concurrent misses for the same SKU share a single load.
+     *
+     * @param sku    The SKU of the product.
+     * @param loader Loads the product from the database; returns null if the SKU is unknown.
+     * @return The product, or null if the SKU is unknown.
+     */
+    public Product get(String sku, Function<String, Product> loader) {
+        return cache.get(sku, key -> Optional.ofNullable(loader.apply(key))).orElse(null);
+    }
+
+    /**
+     * Removes the given SKU from the cache, including a cached "unknown SKU" entry.
+     *
+     * @param sku The SKU to remove.
+     */
+    public void invalidate(String sku) {
+        cache.invalidate(sku);
+    }
+
+    /**
+     * @return A snapshot of the hit, miss and eviction counters of the cache.
+     */
+    public CacheMetrics getMetrics() {
+        return new CacheMetrics(cache.estimatedSize(), cache.stats());
+    }
+}
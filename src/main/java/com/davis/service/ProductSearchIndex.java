@@ -0,0 +1,263 @@
+package com.davis.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.davis.dao.ProductDao;
+import com.davis.dto.ProductSummary;
+import com.davis.model.Product;
+
+/**
+ * In-memory prefix index over product names, descriptions and barcodes, used for typeahead search.
+ * Every word of these fields is indexed in a sorted map, so all words starting with a search term
+ * are found with a single range scan. Searches never touch the database.
+ *
+ * The index is built in one streaming pass when the application starts and is updated
+ * incrementally whenever a product is saved.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    /**
+     * Largest number of results returned by one search.
+     */
+    public static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private ProductDao productDao;
+
+    private final ConcurrentNavigableMap<String, Set<String>> words = new ConcurrentSkipListMap<>(); // Word -> SKUs
+
+    private final ConcurrentMap<String, IndexedProduct> products = new ConcurrentHashMap<>(); // SKU -> indexed product
+
+    /**
+     * Builds the index from the products in the database once all singletons are created.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        productDao.streamProductSummaries(this::index);
+    }
+
+    /**
+     * Adds a saved product to the index, replacing any earlier version of it.
+     *
+     * @param product The saved product.
+     */
+    public void index(Product product) {
+        index(ProductSummary.from(product));
+    }
+
+    /**
+     * Adds a product to the index, replacing any earlier version of it.
+     * Writers are serialized; searches run concurrently and see either the old or the new version.
+     *
+     * @param product The summary of the product.
+     */
+    public synchronized void index(ProductSummary product) {
+        IndexedProduct indexed = new IndexedProduct(product);
+        IndexedProduct previous = products.put(product.getProductSKU(), indexed);
+        if (previous != null) {
+            // Drop the words that are no longer part of the product
+            for (String word : previous.words) {
+                if (!indexed.words.contains(word)) {
+                    Set<String> skus = words.get(word);
+                    if (skus != null) {
+                        skus.remove(product.getProductSKU());
+                        if (skus.isEmpty()) {
+                            words.remove(word);
+                        }
+                    }
+                }
+            }
+        }
+        for (String word : indexed.words) {
+            words.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(product.getProductSKU());
+        }
+    }
+
+    /**
+     * Searches products whose name, description or barcode contain words starting with every term of the query.
+     * Products whose name starts with the query are ranked first, then products whose name matches
+     * all terms, then the remaining matches; ties are ordered by name.
+     *
+     * @param query The search text, e.g. "choc mil".
+     * @param limit The maximum number of results (capped at {@value #MAX_RESULTS}).
+     * @return The best matching products, best match first.
+     */
+    public List<ProductSummary> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        // Collect the words matching each term and start from the most selective term
+        List<Collection<Set<String>>> postings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Collection<Set<String>> matches = matching(term);
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+            postings.add(matches);
+        }
+        int selective = 0;
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < postings.size(); i++) {
+            long count = 0;
+            for (Set<String> skus : postings.get(i)) {
+                count += skus.size();
+            }
+            if (count < fewest) {
+                fewest = count;
+                selective = i;
+            }
+        }
+        Set<String> candidates = new HashSet<>();
+        for (Set<String> skus : postings.get(selective)) {
+            candidates.addAll(skus);
+        }
+
+        // Keep the candidates matching the other terms, ranking them into a bounded heap (worst match on top)
+        String normalizedQuery = query.trim().toLowerCase(Locale.ROOT);
+        int size = Math.min(limit, MAX_RESULTS);
+        Comparator<Match> order = Comparator.<Match>comparingInt(match -> match.rank).thenComparing(match -> match.indexed.name);
+        PriorityQueue<Match> best = new PriorityQueue<>(size + 1, order.reversed());
+        for (String sku : candidates) {
+            IndexedProduct indexed = products.get(sku);
+            if (indexed == null || !indexed.matchesAll(terms, terms.get(selective))) {
+                continue;
+            }
+            best.add(new Match(indexed, indexed.rank(normalizedQuery, terms)));
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(order);
+        List<ProductSummary> results = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            results.add(match.indexed.product);
+        }
+        return results;
+    }
+
+    /**
+     * @return The number of indexed products.
+     */
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Returns the SKU sets of every indexed word starting with the term, without copying them.
+     */
+    private Collection<Set<String>> matching(String term) {
+        return words.subMap(term, term + Character.MAX_VALUE).values();
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A search candidate and its rank (lower is better).
+     */
+    private static final class Match {
+        private final IndexedProduct indexed;
+        private final int rank;
+
+        private Match(IndexedProduct indexed, int rank) {
+            this.indexed = indexed;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * A product in the index together with its indexed words.
+     */
+    private static final class IndexedProduct {
+        private final ProductSummary product;
+        private final String name; // Lower-case name, used for ranking
+        private final List<String> nameWords;
+        private final Set<String> words = new HashSet<>();
+
+        private IndexedProduct(ProductSummary product) {
+            this.product = product;
+            this.name = product.getProduct() != null ? product.getProduct().toLowerCase(Locale.ROOT) : "";
+            this.nameWords = tokenize(name);
+            words.addAll(nameWords);
+            words.addAll(tokenize(product.getDescription()));
+            words.addAll(tokenize(product.getBarCode()));
+        }
+
+        private boolean matchesAll(List<String> terms, String matched) {
+            for (String term : terms) {
+                if (term.equals(matched)) {
+                    continue;
+                }
+                boolean found = false;
+                for (String word : words) {
+                    if (word.startsWith(term)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int rank(String query, List<String> terms) {
+            if (name.startsWith(query)) {
+                return 0;
+            }
+            for (String term : terms) {
+                boolean inName = false;
+                for (String word : nameWords) {
+                    if (word.startsWith(term)) {
+                        inName = true;
+                        break;
+                    }
+                }
+                if (!inName) {
+                    return 2;
+                }
+            }
+            return 1;
+        }
+    }
+}
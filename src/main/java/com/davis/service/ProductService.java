@@ -1,16 +1,29 @@
 package com.davis.service;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.davis.dao.ProductDao;
+import com.davis.dto.BatchItemResult;
+import com.davis.dto.BatchResult;
+import com.davis.dto.ChangeSet;
+import com.davis.dto.KeysetPage;
+import com.davis.dto.ProductSummary;
+import com.davis.model.IdFormatter;
 import com.davis.model.IdGeneration;
+import com.davis.model.IdRange;
 import com.davis.model.Product;
 import com.davis.model.ProductCategory;
 import com.davis.model.Status;
+import com.davis.model.Supplier;
 
 /**
  * Service class for managing product-related operations.
@@ -22,12 +35,39 @@ import com.davis.model.Status;
 @Service
 public class ProductService {
 
+    /**
+     * Largest number of products returned on one page of {@link #getProductPage(String, int)}.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Largest number of products accepted by one call of {@link #saveProducts(List)}.
+     */
+    public static final int MAX_BATCH_SIZE = 50000;
+
+    private static final int BATCH_TRANSACTION_SIZE = 1000; // Products inserted per transaction of a batch
+
     @Autowired
     private IdGeneration idGeneration; // Utility for generating unique IDs
 
     @Autowired
     private ProductDao productDao; // Data access object for product-related operations
 
+    @Autowired
+    private ProductCache productCache; // Read-through cache of products keyed by SKU
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex; // In-memory typeahead index of products
+
+    @Autowired
+    private BarcodeIndex barcodeIndex; // In-memory index from barcodes to SKUs
+
+    @Autowired
+    private CollectionVersions collectionVersions; // Version counters behind the ETags
+
+    @Autowired
+    private SupplierService supplierService; // Resolves the suppliers of batch inserts
+
     /**
      * Saves a new product to the system.
      * Generates a unique SKU for the product, sets the creation date and status,
@@ -38,16 +78,132 @@ public class ProductService {
      */
     public Product saveProduct(Product product) {
         // Generate the SKU
-        String sku = generateSKU(product);
+        String sku = generateSKU(product, idGeneration.getNextIdNumber("skuNumber"));
         product.setProductSKU(sku);
 
-        // Set the creation date and status
-        LocalDateTime now = LocalDateTime.now();
-        product.setCreatedOn(Date.from(now.atZone(ZoneId.systemDefault()).toInstant()).toString());
+        // Set the status; the creation date is set by the entity when it is persisted
         product.setStatus(Status.ACTIVE.toString().toUpperCase());
 
         // Save the product using the DAO
-        return productDao.addProduct(product);
+        Product saved = productDao.addProduct(product);
+        afterSave(saved);
+        collectionVersions.bump(DataCollection.PRODUCTS);
+        return saved;
+    }
+
+    /**
+     * Saves a batch of new products, e.g. a supplier catalogue.
+     * Categories and suppliers are looked up once for the whole batch, SKUs are reserved in a
+     * single sequence reservation, and the products are inserted with JDBC batching in
+     * transactions of {@value #BATCH_TRANSACTION_SIZE} products.
+     *
+     * Products referring to an unknown category or supplier are rejected on their own. If a
+     * transaction fails, all products of that transaction are reported as rejected; products of
+     * the other transactions are still saved.
+     *
+     * @param products The products to be saved (at most {@value #MAX_BATCH_SIZE}).
+     * @return The outcome of every product, in request order.
+     */
+    public BatchResult saveProducts(List<Product> products) {
+        if (products.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch holds at most " + MAX_BATCH_SIZE + " products");
+        }
+        long start = System.nanoTime();
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+
+        // Look up the referenced categories and suppliers with a few IN queries
+        Set<String> categoryIds = new HashSet<>();
+        Set<String> supplierIds = new HashSet<>();
+        for (Product product : products) {
+            if (product != null && product.getCategory() != null) {
+                categoryIds.add(product.getCategory().getId());
+            }
+            if (product != null && product.getSupplier() != null) {
+                supplierIds.add(product.getSupplier().getSupplierId());
+            }
+        }
+        Map<String, ProductCategory> categories = new HashMap<>();
+        for (ProductCategory category : productDao.getProductCategories(categoryIds)) {
+            categories.put(category.getId(), category);
+        }
+        Map<String, Supplier> suppliers = new HashMap<>();
+        for (Supplier supplier : supplierService.getSupplies(supplierIds)) {
+            suppliers.put(supplier.getSupplierId(), supplier);
+        }
+
+        // Replace the references by the stored entities; reject products whose references are unknown
+        List<Product> valid = new ArrayList<>(products.size());
+        List<Integer> validIndexes = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product == null) {
+                results[i] = BatchItemResult.failed(i, "Missing product");
+                continue;
+            }
+            if (product.getCategory() != null) {
+                ProductCategory category = categories.get(product.getCategory().getId());
+                if (category == null) {
+                    results[i] = BatchItemResult.failed(i, "Unknown category " + product.getCategory().getId());
+                    continue;
+                }
+                product.setCategory(category);
+            }
+            if (product.getSupplier() != null) {
+                Supplier supplier = suppliers.get(product.getSupplier().getSupplierId());
+                if (supplier == null) {
+                    results[i] = BatchItemResult.failed(i, "Unknown supplier " + product.getSupplier().getSupplierId());
+                    continue;
+                }
+                product.setSupplier(supplier);
+            }
+            valid.add(product);
+            validIndexes.add(i);
+        }
+
+        // Generate the SKUs in one reservation and set the status
+        assignSKUs(valid);
+        for (Product product : valid) {
+            product.setStatus(Status.ACTIVE.toString().toUpperCase());
+        }
+
+        // Insert the products, one transaction per chunk
+        boolean anySaved = false;
+        for (int from = 0; from < valid.size(); from += BATCH_TRANSACTION_SIZE) {
+            int to = Math.min(from + BATCH_TRANSACTION_SIZE, valid.size());
+            List<Product> chunk = valid.subList(from, to);
+            try {
+                productDao.addProducts(chunk);
+                for (int i = from; i < to; i++) {
+                    Product saved = valid.get(i);
+                    afterSave(saved);
+                    results[validIndexes.get(i)] = BatchItemResult.saved(validIndexes.get(i), saved.getProductSKU());
+                }
+                anySaved = true;
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Logs the exception; the chunk was rolled back
+                String error = "Not saved, the transaction of products " + validIndexes.get(from) + " to "
+                        + validIndexes.get(to - 1) + " failed: " + e.getMessage();
+                for (int i = from; i < to; i++) {
+                    results[validIndexes.get(i)] = BatchItemResult.failed(validIndexes.get(i), error);
+                }
+            }
+        }
+        if (anySaved) {
+            collectionVersions.bump(DataCollection.PRODUCTS);
+        }
+        return new BatchResult(Arrays.asList(results), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Updates the in-memory caches and indexes after a product was saved.
+     *
+     * @param saved The saved product.
+     */
+    private void afterSave(Product saved) {
+        // Drop any cached lookup of the SKU (e.g. a cached "unknown SKU") and index the product
+        productCache.invalidate(saved.getProductSKU());
+        productSearchIndex.index(saved);
+        barcodeIndex.index(saved);
     }
 
     /**
@@ -61,14 +217,44 @@ public class ProductService {
     public ProductCategory saveProductCategory(ProductCategory category) {
         // Generate a unique ID for the category
         long id = idGeneration.getNextIdNumber("productCategory");
-        category.setId(generateProductCategoryId(id));
-
-        // Set the creation date
-        LocalDateTime now = LocalDateTime.now();
-        category.setCreatedOn(Date.from(now.atZone(ZoneId.systemDefault()).toInstant()).toString());
+        category.setId(IdFormatter.formatProductCategoryId(id));
 
         // Save the category using the DAO
-        return productDao.addProductCategory(category);
+        ProductCategory saved = productDao.addProductCategory(category);
+        collectionVersions.bump(DataCollection.PRODUCT_CATEGORIES);
+        return saved;
+    }
+
+    /**
+     * Generates SKUs for a batch of products in a single sequence reservation
+     * and sets them on the products.
+     *
+     * @param products The products for which to generate the SKUs.
+     */
+    public void assignSKUs(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        IdRange range = idGeneration.getNextIdNumbers("skuNumber", products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            product.setProductSKU(generateSKU(product, range.get(i)));
+        }
+    }
+
+    /**
+     * Reserves category IDs for a batch of product categories in a single sequence reservation.
+     *
+     * @param count The number of IDs to reserve.
+     * @return The formatted category IDs, in sequence order.
+     */
+    public List<String> reserveProductCategoryIds(int count) {
+        IdRange range = idGeneration.getNextIdNumbers("productCategory", count);
+        List<String> ids = new ArrayList<>(range.size());
+        for (int i = 0; i < range.size(); i++) {
+            ids.add(IdFormatter.formatProductCategoryId(range.get(i)));
+        }
+        return ids;
     }
 
     /**
@@ -76,133 +262,145 @@ public class ProductService {
      * The SKU is generated using the product name, category, weight, unit of measurement,
      * and a sequential number.
      *
-     * @param product The product for which to generate the SKU.
+     * @param product   The product for which to generate the SKU.
+     * @param skuNumber The sequential number of the SKU.
      * @return The generated SKU.
      */
-    private String generateSKU(Product product) {
-        StringBuilder skuBuilder = new StringBuilder();
-
-        // Step 1: Add the product initial
-        skuBuilder.append(getProductInitial(product.getProduct()));
-
-        // Step 2: Add the category initial
-        skuBuilder.append(getCategoryInitial(product.getCategory()));
+    private String generateSKU(Product product, long skuNumber) {
+        ProductCategory category = product.getCategory();
+        return IdFormatter.formatSku(product.getProduct(), category != null ? category.getName() : null,
+                product.getproductWeight(), product.getUnitOfmeasurement(), skuNumber);
+    }
 
-        // Step 3: Add the weight and unit of measurement (if available)
-        skuBuilder.append(getWeightAndMeasurement(product.getproductWeight(), product.getUnitOfmeasurement()));
+    /**
+     * Returns the ETag of the product data, including the suppliers and categories embedded in it.
+     *
+     * @return The current ETag of the product data.
+     */
+    public String getProductsETag() {
+        return collectionVersions.etag(DataCollection.PRODUCTS, DataCollection.SUPPLIERS,
+                DataCollection.PRODUCT_CATEGORIES);
+    }
 
-        // Step 4: Add the sequential number
-        skuBuilder.append(getSequentialNumber());
+    /**
+     * Returns the ETag of the product category data.
+     *
+     * @return The current ETag of the product category data.
+     */
+    public String getProductCategoriesETag() {
+        return collectionVersions.etag(DataCollection.PRODUCT_CATEGORIES);
+    }
 
-        return skuBuilder.toString();
+    /**
+     * Retrieves a list of all products in the system.
+     *
+     * @return A list of products.
+     */
+    public List<Product> getProducts() {
+        return productDao.getProducts();
     }
 
     /**
-     * Extracts the first letter of the product name and converts it to uppercase.
+     * Retrieves a read-only summary of every product in the system.
+     * The summaries are built directly by a projection query, which is cheaper than loading
+     * and serializing the full entity graph.
      *
-     * @param productName The name of the product.
-     * @return The product initial (e.g., "A" for "Apple").
+     * @return A list of product summaries.
      */
-    private String getProductInitial(String productName) {
-        if (productName != null && !productName.isEmpty()) {
-            return productName.substring(0, 1).toUpperCase();
-        }
-        return "";
+    public List<ProductSummary> getProductSummaries() {
+        return productDao.getProductSummaries();
     }
 
     /**
-     * Extracts the first letter of the product category name and converts it to uppercase.
+     * Hands every product in the system to the given consumer, one at a time,
+     * without loading the complete list into memory.
      *
-     * @param category The product category.
-     * @return The category initial (e.g., "F" for "Fruits").
+     * @param consumer The consumer receiving the products.
      */
-    private String getCategoryInitial(ProductCategory category) {
-        if (category != null && category.getName() != null && !category.getName().isEmpty()) {
-            return category.getName().substring(0, 1).toUpperCase();
-        }
-        return "";
+    public void exportProducts(Consumer<? super Product> consumer) {
+        productDao.streamProducts(consumer);
     }
 
     /**
-     * Constructs the weight and unit of measurement part of the SKU.
+     * Retrieves one page of products ordered by SKU.
      *
-     * @param weight           The weight of the product.
-     * @param unitOfmeasurement The unit of measurement.
-     * @return The weight and unit of measurement (e.g., "-1.5kg").
+     * @param after The SKU after which the page starts, or null for the first page.
+     * @param limit The maximum number of products on the page (capped at {@value #MAX_PAGE_SIZE}).
+     * @return The page of products and the cursor of the next page.
      */
-    private String getWeightAndMeasurement(double weight, String unitOfmeasurement) {
-        if (weight > 0) {
-            StringBuilder weightBuilder = new StringBuilder("-").append(weight);
+    public KeysetPage<Product> getProductPage(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 
-            if (unitOfmeasurement != null && !unitOfmeasurement.isEmpty()) {
-                if (unitOfmeasurement.length() == 1) {
-                    weightBuilder.append(unitOfmeasurement.substring(0, 1));
-                } else {
-                    weightBuilder.append(unitOfmeasurement.substring(0, 2));
-                }
-            }
-            return weightBuilder.toString();
+        // Fetch one extra row to find out whether another page follows
+        List<Product> products = productDao.getProductsAfter(after, pageSize + 1);
+        if (products.size() <= pageSize) {
+            return new KeysetPage<>(products, null);
         }
-        return "";
+        List<Product> page = products.subList(0, pageSize);
+        return new KeysetPage<>(page, page.get(pageSize - 1).getProductSKU());
     }
 
     /**
-     * Generates a sequential number for the SKU and pads it to a 3-digit format.
+     * Retrieves the products added or changed since the client's last synchronization, oldest change first.
+     * Changes of the last {@value ChangeFeed#SETTLE_SECONDS} seconds are held back until no transaction can still be writing them.
      *
-     * @return The sequential number (e.g., "-001").
+     * @param since The {@code nextToken} of the previous response, or null for a first synchronization.
+     * @param limit The maximum number of products to return (capped at {@value ChangeFeed#MAX_LIMIT}).
+     * @return The changed products and the token of the next request.
      */
-    private String getSequentialNumber() {
-        long skuNumber = idGeneration.getNextIdNumber("skuNumber");
+    public ChangeSet<Product> getProductChanges(String since, int limit) {
+        ChangeFeed.Position from = ChangeFeed.parse(since);
+        int pageSize = ChangeFeed.pageSize(limit);
 
-        if (skuNumber <= 9) {
-            return "-" + String.format("%03d", skuNumber);
-        } else if (skuNumber >= 10 && skuNumber <= 99) {
-            return "-" + String.format("%02d", skuNumber);
-        } else if (skuNumber >= 100) {
-            return "-" + String.format("%01d", skuNumber);
-        }
-        return "";
+        // Fetch one extra row to find out whether more changes follow
+        List<Product> rows = productDao.getChangesSince(from.since, from.after, ChangeFeed.settledUntil(), pageSize + 1);
+        return ChangeFeed.page(from, pageSize, rows, Product::getUpdatedOn, Product::getProductSKU);
     }
 
     /**
-     * Generates a unique category ID based on the provided ID.
-     * The ID is formatted to ensure it has a consistent length.
+     * Searches products by partial name, description or barcode.
+     * The search is answered from the in-memory search index and never touches the database.
      *
-     * @param id The unique sequence number for the category.
-     * @return A formatted category ID string.
+     * @param query The search text.
+     * @param limit The maximum number of results.
+     * @return The best matching products, best match first.
      */
-    private String generateProductCategoryId(long id) {
-        // Handle case where auto_id is less than 10
-        if (id <= 9) {
-            return "CAT00" + id;
-        }
-        // Handle case where auto_id is greater than or equal to 10 and less than 100
-        else if (id >= 10 && id < 100) {
-            return "CAT0" + id;
-        }
-        // Handle case where auto_id is greater than or equal to 100
-        else {
-            return "CATO" + id;
-        }
+    public List<ProductSummary> searchProducts(String query, int limit) {
+        return productSearchIndex.search(query, limit);
     }
 
     /**
-     * Retrieves a list of all products in the system.
+     * Returns which of the given SKUs belong to a product, without loading the products.
      *
-     * @return A list of products.
+     * @param skus The SKUs to check.
+     * @return The SKUs that exist.
      */
-    public List<Product> getProducts() {
-        return productDao.getProducts();
+    public Set<String> getExistingSkus(Collection<String> skus) {
+        return new HashSet<>(productDao.getExistingSkus(skus));
     }
 
     /**
      * Retrieves a specific product by its SKU (Stock Keeping Unit).
+     * The product is served from the product cache and loaded from the database on a miss.
      *
      * @param sku The SKU of the product to retrieve.
      * @return The product with the specified SKU, or null if not found.
      */
     public Product getProduct(String sku) {
-        return productDao.getProduct(sku);
+        return productCache.get(sku, productDao::getProduct);
+    }
+
+    /**
+     * Retrieves a product by its barcode.
+     * The barcode is resolved to a SKU with the in-memory barcode index and the product
+     * is then served from the product cache.
+     *
+     * @param barCode The barcode of the product to retrieve.
+     * @return The product carrying the barcode, or null if not found.
+     */
+    public Product getProductByBarcode(String barCode) {
+        String sku = barcodeIndex.find(barCode);
+        return sku != null ? getProduct(sku) : null;
     }
 
     /**
@@ -0,0 +1,117 @@
+package com.davis.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.davis.dao.InventoryDao;
+import com.davis.dto.ReorderAlert;
+
+/**
+ * In-memory set of the inventory items at or below their reorder point, most severe first.
+ * The set is built in one streaming pass when the application starts and is then kept up to date
+ * by the inventory service, which reports the stock level of every item it adds or sells. Reading
+ * the alerts therefore never touches the database.
+ *
+ * Changes made to the database outside the services are not seen until the next start.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class ReorderAlerts {
+
+    // Most severe first; the ID keeps alerts of equal severity apart
+    private static final Comparator<ReorderAlert> BY_SEVERITY = Comparator
+            .comparingDouble(ReorderAlert::getSeverity).reversed()
+            .thenComparing(ReorderAlert::getInventoryId);
+
+    @Autowired
+    private InventoryDao inventoryDao; // Source of the startup pass
+
+    private final ConcurrentMap<String, ReorderAlert> alerts = new ConcurrentHashMap<>(); // Alert per inventory item ID
+    private final ConcurrentSkipListSet<ReorderAlert> bySeverity = new ConcurrentSkipListSet<>(BY_SEVERITY); // Same alerts, sorted
+
+    /**
+     * Loads the items that are due for reordering; the database selects them in one streaming pass.
+     */
+    @PostConstruct
+    public void rebuild() {
+        try {
+            inventoryDao.streamDueReorderAlerts(this::apply);
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // Logs the exception; the alerts fill up as stock changes
+        }
+    }
+
+    /**
+     * Returns the current alerts, most severe first.
+     *
+     * @param limit The maximum number of alerts to return, or null for all of them.
+     * @return The alerts.
+     */
+    public List<ReorderAlert> getAlerts(Integer limit) {
+        int max = limit == null ? Integer.MAX_VALUE : Math.max(0, limit);
+        List<ReorderAlert> result = new ArrayList<>(Math.min(max, alerts.size()));
+        for (ReorderAlert alert : bySeverity) {
+            if (result.size() >= max) {
+                break;
+            }
+            result.add(alert);
+        }
+        return result;
+    }
+
+    /**
+     * Records new stock levels of inventory items, due for reordering or not.
+     * Inside a transaction the levels are recorded only after the transaction commits.
+     *
+     * @param levels The stock levels; the {@code since} of a level is used if the item was not due before.
+     */
+    public void stockChanged(Collection<ReorderAlert> levels) {
+        if (levels.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    levels.forEach(ReorderAlerts.this::apply);
+                }
+            });
+        } else {
+            levels.forEach(this::apply);
+        }
+    }
+
+    /**
+     * @param level A stock level.
+     * @return Whether the item is at or below its reorder point; items without a reorder point never are.
+     */
+    static boolean isDue(ReorderAlert level) {
+        return level.getReOrderPoint() > 0 && level.getUnitsAvailable() <= level.getReOrderPoint();
+    }
+
+    private void apply(ReorderAlert level) {
+        alerts.compute(level.getInventoryId(), (id, current) -> {
+            if (current != null) {
+                bySeverity.remove(current);
+            }
+            if (!isDue(level)) {
+                return null;
+            }
+            // An item that stays due keeps the time it first became due
+            ReorderAlert alert = current == null ? level : new ReorderAlert(id, level.getProductSKU(),
+                    level.getUnitsAvailable(), level.getReOrderPoint(), current.getSince());
+            bySeverity.add(alert);
+            return alert;
+        });
+    }
+}
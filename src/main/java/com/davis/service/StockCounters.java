@@ -0,0 +1,526 @@
+package com.davis.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.davis.dto.InventorySummary;
+import com.davis.dto.QueuedWrite;
+import com.davis.dto.StockCounterMetrics;
+import com.davis.exception.ConflictException;
+import com.davis.exception.InvalidRequestException;
+import com.davis.exception.NotFoundException;
+
+/**
+ * In-memory stock counters for checkout bursts.
+ * A sale is added to a striped counter of its inventory item without locking and without touching
+ * the database. Every {@value #FLUSH_INTERVAL_MILLIS} ms (or earlier, once a counter stripe holds
+ * {@value #FLUSH_THRESHOLD_UNITS} units) a background flusher drains all counters and subtracts the
+ * net units per item in one batched transaction.
+ *
+ * Crash recovery: each drain is first written to a numbered journal segment on local disk and
+ * synced. The transaction that applies a segment also records its number in the
+ * {@value #JOURNAL} row of ID_Gen. At startup, segments up to that number are deleted and later
+ * ones are applied again, so a journalled sale is applied exactly once, even if the process stops
+ * between the commit and the deletion of the file, or the database is unavailable for a while.
+ * Sales not yet drained into a segment live only in memory (at most one flush interval).
+ *
+ * Like a synchronous sale, a sale is only accepted while enough unreserved units are left; otherwise
+ * it is refused with 409 (Conflict). The level of an item (units in stock minus reserved units) is
+ * read on its first sale and kept in memory; each sale takes its units from it with a compare-and-set,
+ * before it is acknowledged. After each flush the levels of the items sold are read again, so changes
+ * made outside the counters (reservations, synchronous sales) are taken into account from the next
+ * flush on; levels of items without sales in a flush are dropped and read again on their next sale.
+ * If an item is deleted after its first sale, its acknowledged sales match no row when they are
+ * applied. They are counted as unmatched in the metrics, and the next sale of the item is refused.
+ *
+ * The mode is available only if the {@value #JOURNAL} row exists in ID_Gen (GET /metrics/stock-counters
+ * shows whether it is enabled, and the last error of the journal or of a flush); the journal directory
+ * is taken from the system property {@value #JOURNAL_DIRECTORY_PROPERTY}. A journal directory must
+ * not be shared between application instances.
+ *
+ * @Component Indicates that this class is a Spring-managed component.
+ */
+@Component
+public class StockCounters {
+
+    /**
+     * Name of the ID_Gen row holding the number of the last journal segment applied.
+     */
+    public static final String JOURNAL = "stockJournal";
+
+    /**
+     * System property naming the journal directory (default: .aisms/stock-journal in the user home).
+     */
+    public static final String JOURNAL_DIRECTORY_PROPERTY = "aisms.stockJournal.dir";
+
+    /**
+     * Time between two flushes, in milliseconds.
+     */
+    public static final long FLUSH_INTERVAL_MILLIS = 250;
+
+    /**
+     * Units on one counter stripe that trigger a flush before the interval has passed.
+     */
+    public static final long FLUSH_THRESHOLD_UNITS = 500;
+
+    /**
+     * Guarantee given to clients whose sale was recorded in memory.
+     */
+    public static final String DURABILITY = "Recorded in memory. The sale is journalled to disk and subtracted "
+            + "from the stock in the database within about " + FLUSH_INTERVAL_MILLIS + " ms; until it is "
+            + "journalled it is lost if the server stops abnormally. GET /metrics/stock-counters shows the flush lag.";
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 30; // Time allowed for the last flush on shutdown
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    @Autowired
+    private InventoryService inventoryService; // Checks the items and applies the sales
+
+    private final ConcurrentMap<String, StripedCounter> counters = new ConcurrentHashMap<>(); // Units sold per item ID, not yet drained
+    private final ConcurrentMap<String, StockLevel> levels = new ConcurrentHashMap<>(); // Sellable units per item ID, of recently sold items
+    private final AtomicLong firstUndrainedAt = new AtomicLong(); // Time of the oldest sale not yet drained, 0 if none
+    private final List<Segment> pending = new ArrayList<>(); // Journalled, not yet applied; flusher thread only
+
+    private final LongAdder salesRecorded = new LongAdder();
+    private final LongAdder salesRefused = new LongAdder();
+    private final LongAdder unitsRecorded = new LongAdder();
+    private final AtomicLong unitsFlushed = new AtomicLong();
+    private final AtomicLong unitsUnmatched = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile int pendingSegments; // Size of pending, for the metrics
+    private volatile long oldestPendingAt; // Time of the oldest sale in pending, for the metrics
+    private volatile String lastError; // Last error of the journal or of a flush, for the metrics
+
+    private Path directory;
+    private long nextSegment; // Number of the next journal segment; flusher thread only
+    private volatile boolean enabled; // Set once the journal has been recovered
+    private volatile boolean stopping; // Set on shutdown; sales are then recorded synchronously
+    private Thread flusher;
+
+    /**
+     * Recovers the journal and starts the background flusher.
+     * If the journal cannot be used, the mode stays disabled and sales are recorded synchronously.
+     */
+    @PostConstruct
+    public void start() {
+        directory = Paths.get(System.getProperty(JOURNAL_DIRECTORY_PROPERTY,
+                Paths.get(System.getProperty("user.home"), ".aisms", "stock-journal").toString()));
+        try {
+            Long marker = inventoryService.getJournalMarker(JOURNAL);
+            if (marker == null) {
+                return; // Not set up; the metrics report the mode as disabled
+            }
+            Files.createDirectories(directory);
+            recover(marker);
+        } catch (IOException | RuntimeException e) {
+            lastError = describe(e); // Sales are recorded synchronously
+            return;
+        }
+        enabled = true;
+        flusher = new Thread(this::flushLoop, "stock-counter-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops recording sales and waits for the flusher to journal and apply the remaining ones.
+     * Segments that could not be applied stay on disk and are applied on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        stopping = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(DRAIN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records a sale in memory.
+     *
+     * @param id    The ID of the inventory item.
+     * @param units The number of units sold.
+     * @return The acknowledgement, whose queue depth is the number of journal segments waiting to be
+     *         applied plus the one collecting this sale; or null if the mode is disabled (or shutting
+     *         down) and the sale has to be recorded synchronously instead.
+     * @throws InvalidRequestException If {@code units} is less than 1.
+     * @throws NotFoundException       If the item does not exist.
+     * @throws ConflictException       If fewer than {@code units} unreserved units are left.
+     */
+    public QueuedWrite recordSale(String id, int units) {
+        if (!enabled || stopping) {
+            return null;
+        }
+        if (units < 1) {
+            throw new InvalidRequestException("units must be at least 1");
+        }
+        // Errors can no longer be reported once recorded, so the item and its level are checked now
+        while (true) {
+            StockLevel level = levels.get(id);
+            if (level == null) {
+                InventorySummary item = inventoryService.getInventorySummary(id);
+                if (item == null) {
+                    throw new NotFoundException("No inventory item " + id);
+                }
+                level = levels.computeIfAbsent(id, key -> new StockLevel(item.getUnitsAvailable() - item.getReservedUnits()));
+            }
+            int taken = level.take(units);
+            if (taken > 0) {
+                break;
+            }
+            if (taken == 0) {
+                salesRefused.increment();
+                throw new ConflictException("Not enough unreserved units of " + id + " to sell " + units);
+            }
+            levels.remove(id, level); // Dropped by the flusher meanwhile; read the level again
+        }
+        StripedCounter counter = counters.get(id);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(id, key -> new StripedCounter());
+        }
+        if (firstUndrainedAt.get() == 0) {
+            firstUndrainedAt.compareAndSet(0, System.nanoTime());
+        }
+        if (counter.add(units) >= FLUSH_THRESHOLD_UNITS) {
+            LockSupport.unpark(flusher);
+        }
+        salesRecorded.increment();
+        unitsRecorded.add(units);
+        return new QueuedWrite(id, pendingSegments + 1, DURABILITY);
+    }
+
+    /**
+     * Returns a snapshot of the counters and of the flush lag.
+     *
+     * @return The stock counter metrics.
+     */
+    public StockCounterMetrics getMetrics() {
+        long now = System.nanoTime();
+        long oldest = firstUndrainedAt.get();
+        if (pendingSegments > 0 && (oldest == 0 || oldestPendingAt - oldest < 0)) {
+            oldest = oldestPendingAt;
+        }
+        long lagMillis = oldest == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(now - oldest);
+        return new StockCounterMetrics(enabled && !stopping, salesRecorded.sum(), salesRefused.sum(), unitsRecorded.sum(),
+                unitsFlushed.get(), unitsUnmatched.get(), flushes.get(), failedFlushes.get(), pendingSegments, lagMillis,
+                lastFlushMillis, lastError);
+    }
+
+    /**
+     * Flushes every interval, or earlier when woken, until shutdown is requested.
+     */
+    private void flushLoop() {
+        while (true) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS));
+            if (stopping) {
+                // Let sales that passed the check before shutdown finish adding to their counters
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS));
+                flush();
+                return;
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Drains the counters into a new journal segment, then applies all segments not yet applied.
+     */
+    private void flush() {
+        long drainedSince = firstUndrainedAt.getAndSet(0);
+        Map<String, Long> sold = new HashMap<>();
+        for (Map.Entry<String, StripedCounter> counter : counters.entrySet()) {
+            long units = counter.getValue().drain();
+            if (units != 0) {
+                sold.put(counter.getKey(), units);
+            }
+        }
+        if (!sold.isEmpty()) {
+            long number = nextSegment;
+            try {
+                writeSegment(number, sold);
+            } catch (IOException e) {
+                lastError = describe(e); // The sales go back to the counters for the next flush
+                for (Map.Entry<String, Long> units : sold.entrySet()) {
+                    counters.get(units.getKey()).add(units.getValue());
+                }
+                firstUndrainedAt.compareAndSet(0, drainedSince == 0 ? System.nanoTime() : drainedSince);
+                failedFlushes.incrementAndGet();
+                return;
+            }
+            nextSegment++;
+            pending.add(new Segment(number, sold, drainedSince == 0 ? System.nanoTime() : drainedSince));
+            updatePendingMetrics();
+        }
+        if (!pending.isEmpty()) {
+            apply();
+        }
+        // Levels of items without sales in flight are dropped, so their next sale reads them again
+        for (Map.Entry<String, StockLevel> level : levels.entrySet()) {
+            if (!sold.containsKey(level.getKey()) && level.getValue().retire()) {
+                levels.remove(level.getKey(), level.getValue());
+            }
+        }
+    }
+
+    /**
+     * Applies all pending segments in one transaction and deletes their files.
+     * If the transaction fails, the segments stay pending and are retried on the next flush.
+     */
+    private void apply() {
+        Map<String, Long> merged = new HashMap<>();
+        long units = 0;
+        for (Segment segment : pending) {
+            for (Map.Entry<String, Long> sold : segment.sold.entrySet()) {
+                merged.merge(sold.getKey(), sold.getValue(), Long::sum);
+                units += sold.getValue();
+            }
+        }
+        long last = pending.get(pending.size() - 1).number;
+        long started = System.nanoTime();
+        Set<String> unmatched;
+        try {
+            unmatched = inventoryService.applyUnitsSold(merged, JOURNAL, last);
+        } catch (RuntimeException e) {
+            lastError = describe(e); // The segments are retried on the next flush
+            failedFlushes.incrementAndGet();
+            return;
+        }
+        lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        flushes.incrementAndGet();
+        for (String id : unmatched) {
+            // The item was deleted after its first sale; its next sale is checked again
+            levels.remove(id);
+            long lost = merged.get(id);
+            units -= lost;
+            unitsUnmatched.addAndGet(lost);
+        }
+        refreshLevels(merged);
+        unitsFlushed.addAndGet(units); // After the levels, so the flushed units are seen together with them
+        for (Segment segment : pending) {
+            deleteSegment(segment.number); // A file left behind is deleted on the next start
+        }
+        pending.clear();
+        updatePendingMetrics();
+    }
+
+    /**
+     * Adjusts the levels of the items just flushed to their rows, which may also have been changed by
+     * reservations or synchronous sales. Any error leaves the levels as they are until the next flush.
+     *
+     * @param flushed The units just applied per item ID.
+     */
+    private void refreshLevels(Map<String, Long> flushed) {
+        Map<String, StockLevel> refreshed = new HashMap<>();
+        for (Map.Entry<String, Long> units : flushed.entrySet()) {
+            StockLevel level = levels.get(units.getKey());
+            if (level != null) {
+                level.applied(units.getValue());
+                refreshed.put(units.getKey(), level);
+            }
+        }
+        if (refreshed.isEmpty()) {
+            return;
+        }
+        Map<String, Long> sellable;
+        try {
+            sellable = inventoryService.getSellableUnits(refreshed.keySet());
+        } catch (RuntimeException e) {
+            lastError = describe(e);
+            return;
+        }
+        for (Map.Entry<String, StockLevel> level : refreshed.entrySet()) {
+            Long units = sellable.get(level.getKey());
+            if (units != null) {
+                level.getValue().adjust(units);
+            }
+        }
+    }
+
+    /**
+     * Deletes the segments applied before the process stopped and loads the others as pending.
+     *
+     * @param marker The number of the last segment applied.
+     */
+    private void recover(long marker) throws IOException {
+        long highest = marker;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(SEGMENT_SUFFIX)) {
+                    Files.delete(file); // Incomplete segment; its sales were never acknowledged as journalled
+                    continue;
+                }
+                long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                highest = Math.max(highest, number);
+                if (number <= marker) {
+                    Files.delete(file); // Applied; deleting it was interrupted
+                } else {
+                    pending.add(new Segment(number, readSegment(file), System.nanoTime()));
+                }
+            }
+        }
+        pending.sort(Comparator.comparingLong(segment -> segment.number));
+        nextSegment = highest + 1;
+        updatePendingMetrics();
+    }
+
+    /**
+     * Writes a segment to a temporary file, syncs it and renames it, so a segment file is either
+     * complete or absent.
+     */
+    private void writeSegment(long number, Map<String, Long> sold) throws IOException {
+        Path temporary = directory.resolve(SEGMENT_PREFIX + number + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporary.toFile());
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Long> units : sold.entrySet()) {
+                writer.write(units.getKey());
+                writer.write('\t');
+                writer.write(Long.toString(units.getValue()));
+                writer.write('\n');
+            }
+            writer.flush();
+            out.getFD().sync();
+        }
+        Files.move(temporary, segmentFile(number), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<String, Long> readSegment(Path file) throws IOException {
+        Map<String, Long> sold = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    sold.merge(line.substring(0, tab), Long.parseLong(line.substring(tab + 1)), Long::sum);
+                }
+            }
+        }
+        return sold;
+    }
+
+    private void deleteSegment(long number) {
+        try {
+            Files.deleteIfExists(segmentFile(number));
+        } catch (IOException e) {
+            lastError = describe(e); // The file is deleted on the next start
+        }
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private static String describe(Exception error) {
+        return error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+
+    private void updatePendingMetrics() {
+        pendingSegments = pending.size();
+        oldestPendingAt = pending.isEmpty() ? 0 : pending.get(0).drainedSince;
+    }
+
+    /**
+     * The units of an item that may still be sold through the counters.
+     * A sale adds its units to {@code outstanding} before taking them from {@code sellable}, so
+     * {@code sellable + outstanding} read in this order never exceeds the level the database will
+     * have once the outstanding units are applied; an adjustment computed from it errs on the low side.
+     */
+    private static final class StockLevel {
+        private static final long RETIRED = Long.MIN_VALUE; // Value of outstanding once the level is dropped
+
+        private final AtomicLong sellable; // Units in stock, not reserved and not sold through the counters
+        private final AtomicLong outstanding = new AtomicLong(); // Units taken but not yet applied to the database
+
+        private StockLevel(long sellable) {
+            this.sellable = new AtomicLong(sellable);
+        }
+
+        /**
+         * @return 1 if the units were taken, 0 if too few are left, -1 if the level was dropped.
+         */
+        private int take(int units) {
+            if (outstanding.getAndUpdate(value -> value == RETIRED ? RETIRED : value + units) == RETIRED) {
+                return -1;
+            }
+            long left;
+            do {
+                left = sellable.get();
+                if (left < units) {
+                    outstanding.addAndGet(-units);
+                    return 0;
+                }
+            } while (!sellable.compareAndSet(left, left - units));
+            return 1;
+        }
+
+        private void applied(long units) {
+            outstanding.addAndGet(-units);
+        }
+
+        /**
+         * Moves the level by the changes made to the row outside the counters.
+         *
+         * @param databaseSellable The units in stock and not reserved, read after the last flush.
+         */
+        private void adjust(long databaseSellable) {
+            long expected = sellable.get();
+            expected += outstanding.get();
+            sellable.addAndGet(databaseSellable - expected);
+        }
+
+        /**
+         * Drops the level if no units are outstanding; later sales then read the level again.
+         */
+        private boolean retire() {
+            return outstanding.compareAndSet(0, RETIRED);
+        }
+    }
+
+    /**
+     * A journal segment: the units sold per item ID in one drain.
+     */
+    private static final class Segment {
+        private final long number;
+        private final Map<String, Long> sold;
+        private final long drainedSince; // Time of the oldest sale in the segment
+
+        private Segment(long number, Map<String, Long> sold, long drainedSince) {
+            this.number = number;
+            this.sold = sold;
+            this.drainedSince = drainedSince;
+        }
+    }
+}
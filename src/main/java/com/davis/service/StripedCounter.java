@@ -0,0 +1,53 @@
+package com.davis.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter split into stripes, so that threads adding to the same counter at the same time
+ * mostly update different memory and do not retry on each other's compare-and-set.
+ *
+ * Unlike {@link java.util.concurrent.atomic.LongAdder}, the counter can be drained exactly while
+ * it is being added to: {@link #drain()} takes each stripe with an atomic get-and-set, so every
+ * addition is returned by exactly one drain.
+ */
+final class StripedCounter {
+
+    static final int STRIPES = stripes(); // Power of two, about twice the number of processors
+    private static final int PADDING = 8; // Longs per stripe: one 64-byte cache line
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    /**
+     * Adds to the stripe of the calling thread.
+     *
+     * @param delta The value to add.
+     * @return The new value of that stripe (not of the whole counter).
+     */
+    long add(long delta) {
+        return cells.addAndGet(stripe() * PADDING, delta);
+    }
+
+    /**
+     * Returns the value added since the previous drain and resets the counter to it.
+     *
+     * @return The sum of all stripes.
+     */
+    long drain() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.getAndSet(i * PADDING, 0);
+        }
+        return sum;
+    }
+
+    private static int stripe() {
+        // Thread IDs are sequential; spread them so neighbouring threads use different stripes
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (STRIPES - 1);
+    }
+
+    private static int stripes() {
+        int wanted = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        return Math.min(64, Integer.highestOneBit(wanted - 1) << 1);
+    }
+}
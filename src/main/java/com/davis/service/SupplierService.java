@@ -1,14 +1,18 @@
 package com.davis.service;
 
-import java.time.LocalDateTime;
 import java.time.Year;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.davis.dao.SupplierDao;
+import com.davis.dto.ChangeSet;
+import com.davis.dto.SupplierSummary;
+import com.davis.model.IdFormatter;
 import com.davis.model.IdGeneration;
+import com.davis.model.IdRange;
 import com.davis.model.Status;
 import com.davis.model.Supplier;
 
@@ -26,6 +30,9 @@ public class SupplierService {
 
     @Autowired
     private SupplierDao supplierDao;
+
+    @Autowired
+    private CollectionVersions collectionVersions; // Version counters behind the ETags
     
 
     /**
@@ -37,23 +44,46 @@ public class SupplierService {
     public Supplier addSupllier(Supplier supplier) {
     	 int year = Year.now().getValue();
          long auto_id = idGeneration.getNextIdNumber("supplier");
-         supplier.setSupplierId(generateSupplierId(auto_id, year));
-         // Set the creation date
-         LocalDateTime now = LocalDateTime.now();
-         supplier.setCreatedOn((Date.from(now.atZone(ZoneId.systemDefault()).toInstant()).toString()));
+         supplier.setSupplierId(IdFormatter.formatSupplierId(auto_id, year));
+         // Set the status; the creation date is set by the entity when it is persisted
          supplier.setStatus(Status.ACTIVE.toString().toUpperCase());
-        return supplierDao.addSupplier(supplier);
+        Supplier saved = supplierDao.addSupplier(supplier);
+        collectionVersions.bump(DataCollection.SUPPLIERS);
+        return saved;
     }
-    private String generateSupplierId(long id, int year) {
-        if (id <= 9) {
-            return "SU000" + id + "" + year;
-        } else if (id >= 10 && id <= 99) {
-            return "SU00" + id + "" + year;
-        } else if (id >= 100 && id <= 999) {
-            return "SU0" + id + "" + year;
-        } else {
-            return "SU" + id + "" + year;
+    /**
+     * Reserves supplier IDs for a batch of suppliers in a single sequence reservation.
+     *
+     * @param count The number of IDs to reserve.
+     * @return The formatted supplier IDs, in sequence order.
+     */
+    public List<String> reserveSupplierIds(int count) {
+        int year = Year.now().getValue();
+        IdRange range = idGeneration.getNextIdNumbers("supplier", count);
+        List<String> ids = new ArrayList<>(range.size());
+        for (int i = 0; i < range.size(); i++) {
+            ids.add(IdFormatter.formatSupplierId(range.get(i), year));
         }
+        return ids;
+    }
+
+    /**
+     * Returns the ETag of the supplier data.
+     *
+     * @return The current ETag of the supplier data.
+     */
+    public String getSuppliesETag() {
+        return collectionVersions.etag(DataCollection.SUPPLIERS);
+    }
+
+    /**
+     * Retrieves the suppliers with the given IDs; IDs without a supplier are skipped.
+     *
+     * @param ids The IDs of the suppliers to retrieve.
+     * @return The suppliers found, in no particular order.
+     */
+    public List<Supplier> getSupplies(Collection<String> ids) {
+        return supplierDao.getSupplies(ids);
     }
 
     /**
@@ -65,6 +95,44 @@ public class SupplierService {
         return supplierDao.getSupplies();
     }
 
+    /**
+     * Retrieves a read-only summary of every supplier in the system.
+     * The summaries are built directly by a projection query, which is cheaper than loading
+     * and serializing the full entity graph.
+     *
+     * @return A list of supplier summaries.
+     */
+    public List<SupplierSummary> getSupplierSummaries() {
+        return supplierDao.getSupplierSummaries();
+    }
+
+    /**
+     * Retrieves the suppliers added or changed since the client's last synchronization, oldest change first.
+     * Changes of the last {@value ChangeFeed#SETTLE_SECONDS} seconds are held back until no transaction can still be writing them.
+     *
+     * @param since The {@code nextToken} of the previous response, or null for a first synchronization.
+     * @param limit The maximum number of suppliers to return (capped at {@value ChangeFeed#MAX_LIMIT}).
+     * @return The changed suppliers and the token of the next request.
+     */
+    public ChangeSet<Supplier> getSupplierChanges(String since, int limit) {
+        ChangeFeed.Position from = ChangeFeed.parse(since);
+        int pageSize = ChangeFeed.pageSize(limit);
+
+        // Fetch one extra row to find out whether more changes follow
+        List<Supplier> rows = supplierDao.getChangesSince(from.since, from.after, ChangeFeed.settledUntil(), pageSize + 1);
+        return ChangeFeed.page(from, pageSize, rows, Supplier::getUpdatedOn, Supplier::getSupplierId);
+    }
+
+    /**
+     * Hands every supplier in the system to the given consumer, one at a time,
+     * without loading the complete list into memory.
+     *
+     * @param consumer The consumer receiving the suppliers.
+     */
+    public void exportSupplies(Consumer<? super Supplier> consumer) {
+        supplierDao.streamSupplies(consumer);
+    }
+
     /**
      * Retrieves a specific supplier by their unique identifier.
      *
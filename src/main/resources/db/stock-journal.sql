@@ -0,0 +1,8 @@
+-- Enables the in-memory stock counters (POST /inventory/{id}/sell with Prefer: respond-async).
+-- The row holds the number of the last journal segment applied; it is updated in the same
+-- transaction as the stock, which makes replaying the journal after a crash exactly-once.
+-- Run once on SQL Server. Without the row, sales are always recorded synchronously.
+
+IF NOT EXISTS (SELECT 1 FROM ID_Gen WHERE idName = 'stockJournal')
+    INSERT INTO ID_Gen (idName, idValue) VALUES ('stockJournal', 0);
+GO
@@ -0,0 +1,73 @@
+-- Converts createdOn / lastUpdatedOn of Product, Supplier, ProductCategory and Inventory from
+-- text (java.util.Date.toString(), e.g. 'Tue Oct 01 10:15:30 EAT 2024') to datetime2(3) in UTC,
+-- and adds the indexes read by the /changes endpoints.
+--
+-- Run once on SQL Server, with the application stopped. The old values were written in the
+-- local time of the application server; they are shifted to UTC with the current offset of the
+-- database server, so both servers are assumed to share a time zone. Values that cannot be
+-- parsed become NULL; a missing last update date falls back to the creation date, then to now,
+-- so every row is visible to the change feeds.
+
+SET LANGUAGE us_english;
+GO
+
+CREATE FUNCTION dbo.ParseJavaDate (@value NVARCHAR(64))
+RETURNS DATETIME2(3)
+AS
+BEGIN
+    -- 'EEE MMM dd HH:mm:ss zzz yyyy' -> 'MMM dd yyyy HH:mm:ss'
+    DECLARE @local DATETIME2(3) = TRY_CONVERT(DATETIME2(3),
+        SUBSTRING(@value, 5, 6) + ' ' + RIGHT(@value, 4) + ' ' + SUBSTRING(@value, 12, 8));
+    RETURN DATEADD(MINUTE, -DATEPART(TZOFFSET, SYSDATETIMEOFFSET()), @local);
+END
+GO
+
+-- Product
+ALTER TABLE Product ADD createdOnUtc DATETIME2(3) NULL, lastUpdatedOnUtc DATETIME2(3) NULL;
+GO
+UPDATE Product SET
+    createdOnUtc = dbo.ParseJavaDate(createdOn),
+    lastUpdatedOnUtc = COALESCE(dbo.ParseJavaDate(lastUpdatedOn), dbo.ParseJavaDate(createdOn), SYSUTCDATETIME());
+ALTER TABLE Product DROP COLUMN createdOn, lastUpdatedOn;
+EXEC sp_rename 'Product.createdOnUtc', 'createdOn', 'COLUMN';
+EXEC sp_rename 'Product.lastUpdatedOnUtc', 'lastUpdatedOn', 'COLUMN';
+CREATE INDEX IX_Product_LastUpdatedOn ON Product (lastUpdatedOn, ProductCode);
+GO
+
+-- Supplier
+ALTER TABLE Supplier ADD createdOnUtc DATETIME2(3) NULL, lastUpdatedOnUtc DATETIME2(3) NULL;
+GO
+UPDATE Supplier SET
+    createdOnUtc = dbo.ParseJavaDate(createdOn),
+    lastUpdatedOnUtc = COALESCE(dbo.ParseJavaDate(LastUpdatedOn), dbo.ParseJavaDate(createdOn), SYSUTCDATETIME());
+ALTER TABLE Supplier DROP COLUMN createdOn, LastUpdatedOn;
+EXEC sp_rename 'Supplier.createdOnUtc', 'createdOn', 'COLUMN';
+EXEC sp_rename 'Supplier.lastUpdatedOnUtc', 'LastUpdatedOn', 'COLUMN';
+CREATE INDEX IX_Supplier_LastUpdatedOn ON Supplier (LastUpdatedOn, supplierId);
+GO
+
+-- ProductCategory (no change feed, so no index)
+ALTER TABLE ProductCategory ADD createdOnUtc DATETIME2(3) NULL, lastUpdatedOnUtc DATETIME2(3) NULL;
+GO
+UPDATE ProductCategory SET
+    createdOnUtc = dbo.ParseJavaDate(createdOn),
+    lastUpdatedOnUtc = COALESCE(dbo.ParseJavaDate(lastUpdatedOn), dbo.ParseJavaDate(createdOn), SYSUTCDATETIME());
+ALTER TABLE ProductCategory DROP COLUMN createdOn, lastUpdatedOn;
+EXEC sp_rename 'ProductCategory.createdOnUtc', 'createdOn', 'COLUMN';
+EXEC sp_rename 'ProductCategory.lastUpdatedOnUtc', 'lastUpdatedOn', 'COLUMN';
+GO
+
+-- Inventory
+ALTER TABLE Inventory ADD createdOnUtc DATETIME2(3) NULL, lastUpdatedOnUtc DATETIME2(3) NULL;
+GO
+UPDATE Inventory SET
+    createdOnUtc = dbo.ParseJavaDate(createdOn),
+    lastUpdatedOnUtc = COALESCE(dbo.ParseJavaDate(LastUpdatedOn), dbo.ParseJavaDate(createdOn), SYSUTCDATETIME());
+ALTER TABLE Inventory DROP COLUMN createdOn, LastUpdatedOn;
+EXEC sp_rename 'Inventory.createdOnUtc', 'createdOn', 'COLUMN';
+EXEC sp_rename 'Inventory.lastUpdatedOnUtc', 'LastUpdatedOn', 'COLUMN';
+CREATE INDEX IX_Inventory_LastUpdatedOn ON Inventory (LastUpdatedOn, StockId);
+GO
+
+DROP FUNCTION dbo.ParseJavaDate;
+GO
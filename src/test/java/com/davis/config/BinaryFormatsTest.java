@@ -0,0 +1,102 @@
+package com.davis.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import com.davis.model.Product;
+import com.davis.model.ProductCategory;
+import com.davis.model.Supplier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The Smile and CBOR converters carry the same data as JSON, with the model's JSON annotations.
+ */
+class BinaryFormatsTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    private final WebConfig webConfig = new WebConfig();
+    private final List<HttpMessageConverter<?>> converters = new ArrayList<>();
+    private final ObjectMapper json = webConfig.objectMapper();
+
+    BinaryFormatsTest() {
+        webConfig.configureMessageConverters(converters);
+    }
+
+    @Test
+    void jsonStaysTheDefault() {
+        assertTrue(converters.get(0).canWrite(Product.class, MediaType.ALL));
+        assertTrue(converters.get(0).getSupportedMediaTypes().contains(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void smileRoundTrip() throws Exception {
+        byte[] body = roundTrip(SMILE);
+        assertArrayEquals(new byte[] { ':', ')', '\n' }, Arrays.copyOf(body, 3)); // Smile header
+    }
+
+    @Test
+    void cborRoundTrip() throws Exception {
+        byte[] body = roundTrip(CBOR);
+        assertTrue(body.length < json.writeValueAsBytes(product()).length);
+    }
+
+    /**
+     * Writes a product in the given format, reads it back and compares both with the JSON representation.
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] roundTrip(MediaType mediaType) throws Exception {
+        HttpMessageConverter<Object> converter = null;
+        for (HttpMessageConverter<?> candidate : converters) {
+            if (candidate.canWrite(Product.class, mediaType)) {
+                converter = (HttpMessageConverter<Object>) candidate;
+                break;
+            }
+        }
+        assertTrue(converter != null && converter.getSupportedMediaTypes().contains(mediaType));
+
+        Product product = product();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(product, mediaType, output);
+        byte[] body = output.getBodyAsBytes();
+        assertEquals(mediaType, output.getHeaders().getContentType());
+
+        MockHttpInputMessage input = new MockHttpInputMessage(body);
+        input.getHeaders().setContentType(mediaType);
+        Product read = (Product) converter.read(Product.class, input);
+        assertEquals(json.valueToTree(product), json.valueToTree(read));
+        return body;
+    }
+
+    private static Product product() {
+        ProductCategory category = new ProductCategory();
+        category.setId("CAT001");
+        category.setName("Fruits");
+        Supplier supplier = new Supplier();
+        supplier.setSupplierId("SU00012025");
+        supplier.setName("Fresh Farms");
+        Product product = new Product();
+        product.setProductSKU("AF-1.5kg-001");
+        product.setBarCode("4000000000001");
+        product.setProduct("Apple");
+        product.setDescription("Red apples");
+        product.setproductWeight(1.5);
+        product.setUnitOfmeasurement("kg");
+        product.setCategory(category);
+        product.setSupplier(supplier);
+        product.setCreatedOn(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_000_000));
+        product.setUpdatedOn(LocalDateTime.of(2025, 3, 2, 8, 0));
+        return product;
+    }
+}
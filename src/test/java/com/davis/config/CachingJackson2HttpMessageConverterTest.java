@@ -0,0 +1,78 @@
+package com.davis.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.davis.model.Inventory;
+import com.davis.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The caching converter writes exactly the bytes of the stock Jackson converter, and builds one
+ * writer per response type.
+ */
+class CachingJackson2HttpMessageConverterTest {
+
+    private static final Type PRODUCTS = new ParameterizedTypeReference<List<Product>>() {}.getType();
+    private static final Type INVENTORY = new ParameterizedTypeReference<List<Inventory>>() {}.getType();
+
+    private final ObjectMapper objectMapper = new WebConfig().objectMapper();
+    private final CachingJackson2HttpMessageConverter caching = new CachingJackson2HttpMessageConverter(objectMapper);
+    private final MappingJackson2HttpMessageConverter stock = new MappingJackson2HttpMessageConverter(objectMapper);
+
+    @Test
+    void listOutputIsByteIdentical() throws Exception {
+        List<Product> products = products(200);
+        assertArrayEquals(write(stock, products, PRODUCTS), write(caching, products, PRODUCTS));
+        assertArrayEquals(write(stock, new ArrayList<>(), PRODUCTS), write(caching, new ArrayList<>(), PRODUCTS));
+    }
+
+    @Test
+    void singleObjectOutputIsByteIdentical() throws Exception {
+        Product product = products(1).get(0);
+        assertArrayEquals(write(stock, product, Product.class), write(caching, product, Product.class));
+        assertArrayEquals(write(stock, product, null), write(caching, product, null));
+    }
+
+    @Test
+    void oneWriterPerListType() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            write(caching, products(2), PRODUCTS);
+            write(caching, new ArrayList<Inventory>(), INVENTORY);
+            write(caching, products(1).get(0), Product.class); // Not cached
+        }
+        assertEquals(2, ((Map<?, ?>) ReflectionTestUtils.getField(caching, "writers")).size());
+    }
+
+    private static byte[] write(MappingJackson2HttpMessageConverter converter, Object value, Type type)
+            throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setProductSKU("AF-" + i);
+            product.setProduct("Apple é " + i); // Non-ASCII text goes through the same encoding
+            product.setDescription("Line\nbreak \"quoted\"");
+            product.setproductWeight(i / 4.0);
+            product.setCreatedOn(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,60 @@
+package com.davis.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import com.davis.service.StockCounters;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Root application context on an in-memory H2 database.
+ * The tables are created from the entities; ID_Gen and its sequences come from import.sql.
+ * Hibernate statistics are enabled so tests can count the statements they cause.
+ */
+@Configuration
+@Import(AppConfig.class)
+public class H2TestConfig {
+
+    static {
+        // Keeps the stock journal of the tests out of the user's home directory
+        try {
+            System.setProperty(StockCounters.JOURNAL_DIRECTORY_PROPERTY,
+                    Files.createTempDirectory("stock-journal").toString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Points the data source and the entity manager factory of {@link AppConfig} at H2.
+     *
+     * @return The post-processor.
+     */
+    @Bean
+    public static BeanPostProcessor h2Database() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setDriverClassName("org.h2.Driver");
+                    dataSource.setJdbcUrl("jdbc:h2:mem:aisms;DB_CLOSE_DELAY=-1");
+                    dataSource.setUsername("sa");
+                    dataSource.setPassword("");
+                } else if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+                    Map<String, Object> properties = ((LocalContainerEntityManagerFactoryBean) bean).getJpaPropertyMap();
+                    properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+                    properties.put("hibernate.hbm2ddl.auto", "create");
+                    properties.put("hibernate.show_sql", "false");
+                    properties.put("hibernate.generate_statistics", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
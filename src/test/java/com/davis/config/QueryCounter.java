@@ -0,0 +1,58 @@
+package com.davis.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs, using the Hibernate
+ * statistics (enabled by {@link H2TestConfig}). Statements of background threads are counted too,
+ * so actions should run while the application is otherwise idle.
+ */
+public final class QueryCounter {
+
+    private final Statistics statistics;
+
+    /**
+     * @param entityManagerFactory The entity manager factory whose statements are counted.
+     * @throws IllegalStateException If Hibernate statistics are disabled.
+     */
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("hibernate.generate_statistics is disabled");
+        }
+    }
+
+    /**
+     * Runs an action and returns the number of statements prepared meanwhile.
+     *
+     * @param action The action.
+     * @return The number of statements.
+     */
+    public long count(Runnable action) {
+        long before = statistics.getPrepareStatementCount();
+        action.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    /**
+     * Runs an action and asserts the number of statements prepared meanwhile.
+     *
+     * @param expected The expected number of statements.
+     * @param name     The name of the action, for the failure message.
+     * @param action   The action.
+     */
+    public void assertStatements(long expected, String name, Runnable action) {
+        assertEquals(expected, count(action), "statements issued by " + name);
+    }
+
+    /**
+     * Empties the second-level and query caches, so the next action reads from the database.
+     */
+    public static void evictCaches(EntityManagerFactory entityManagerFactory) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+}
@@ -0,0 +1,75 @@
+package com.davis.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import com.davis.model.Inventory;
+import com.davis.model.Product;
+import com.davis.model.ProductCategory;
+import com.davis.model.Supplier;
+
+/**
+ * Inserts test rows directly through JPA, bypassing the services (no IDs are generated, no indexes
+ * or caches are updated). Every call uses its own ID prefix, so tests sharing a context do not collide.
+ */
+public final class TestData {
+
+    private static final AtomicLong BAR_CODES = new AtomicLong(4_000_000_000_000L);
+
+    private TestData() {
+    }
+
+    /**
+     * Inserts {@code count} inventory items, each with its own product, category and supplier.
+     *
+     * @param entityManagerFactory The entity manager factory of the test context.
+     * @param prefix               The prefix of the IDs, e.g. "R" gives items R-I0, R-I1, ...
+     * @param count                The number of items.
+     * @param unitsAvailable       The units available of every item.
+     * @return The inventory IDs.
+     */
+    public static List<String> inventory(EntityManagerFactory entityManagerFactory, String prefix, int count,
+            int unitsAvailable) {
+        List<String> ids = new ArrayList<>(count);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < count; i++) {
+                ProductCategory category = new ProductCategory();
+                category.setId(prefix + "-C" + i);
+                category.setName(prefix + " category " + i);
+                entityManager.persist(category);
+
+                Supplier supplier = new Supplier();
+                supplier.setSupplierId(prefix + "-S" + i);
+                supplier.setName(prefix + " supplier " + i);
+                entityManager.persist(supplier);
+
+                Product product = new Product();
+                product.setProductSKU(prefix + "-P" + i);
+                product.setProduct(prefix + " product " + i);
+                product.setBarCode(Long.toString(BAR_CODES.getAndIncrement()));
+                product.setDescription(prefix + " description " + i);
+                product.setCategory(category);
+                product.setSupplier(supplier);
+                entityManager.persist(product);
+
+                Inventory inventory = new Inventory();
+                inventory.setInventoryId(prefix + "-I" + i);
+                inventory.setProduct(product);
+                inventory.setSupplier(supplier);
+                inventory.setStatus("IN STOCK");
+                inventory.setUnitsAvailable(unitsAvailable);
+                inventory.setReOrderPoint(10);
+                entityManager.persist(inventory);
+                ids.add(inventory.getInventoryId());
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,49 @@
+package com.davis.config;
+
+import javax.servlet.Filter;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * The servlet context of {@link WebConfig} as a child of a test's root context, like
+ * WebAppInitializer sets it up, with a MockMvc to send requests through it. The root context stays
+ * shared with the other tests; only the controllers and converters are created again.
+ */
+public final class WebLayer implements AutoCloseable {
+
+    private final AnnotationConfigWebApplicationContext context;
+    private final MockMvc mockMvc;
+
+    /**
+     * Creates and refreshes the servlet context.
+     *
+     * @param root    The root application context of the test.
+     * @param filters The filters the requests pass before the dispatcher, in order.
+     */
+    public WebLayer(ApplicationContext root, Filter... filters) {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setParent(root);
+        context.setServletContext(new MockServletContext());
+        context.register(WebConfig.class);
+        context.refresh();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(filters).build();
+    }
+
+    /**
+     * @return The MockMvc sending requests to the controllers.
+     */
+    public MockMvc mockMvc() {
+        return mockMvc;
+    }
+
+    /**
+     * Closes the servlet context; the root context stays open.
+     */
+    @Override
+    public void close() {
+        context.close();
+    }
+}
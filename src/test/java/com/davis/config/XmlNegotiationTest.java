@@ -0,0 +1,120 @@
+package com.davis.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * The XML list handlers only answer clients that prefer XML; browsers, which accept XML with a
+ * lower quality than HTML, get the JSON lists.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class XmlNegotiationTest {
+
+    private static final String CHROME = "text/html,application/xhtml+xml,application/xml;q=0.9,"
+            + "image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7";
+    private static final String FIREFOX = "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+
+    @Autowired
+    private ApplicationContext root;
+
+    private WebLayer web;
+
+    private final PreferredXmlNegotiationStrategy strategy =
+            new PreferredXmlNegotiationStrategy(new HeaderContentNegotiationStrategy());
+
+    @BeforeAll
+    void startWebLayer() {
+        TestData.inventory(root.getBean(EntityManagerFactory.class), "NEGO", 2, 3);
+        web = new WebLayer(root);
+    }
+
+    @AfterAll
+    void stopWebLayer() {
+        web.close();
+    }
+
+    @Test
+    void browsersGetJson() throws Exception {
+        for (String accept : Arrays.asList(CHROME, FIREFOX)) {
+            for (String list : Arrays.asList("/product/", "/supplier/", "/inventory/")) {
+                assertEquals(MediaType.APPLICATION_JSON, contentType(list, accept), list + " with " + accept);
+            }
+        }
+    }
+
+    @Test
+    void clientsPreferringXmlGetXml() throws Exception {
+        for (String accept : Arrays.asList("application/xml", "text/xml", "application/xml, */*;q=0.1",
+                "application/xml;q=0.9, application/json;q=0.5")) {
+            for (String list : Arrays.asList("/product/", "/supplier/", "/inventory/")) {
+                assertEquals(MediaType.APPLICATION_XML, contentType(list, accept), list + " with " + accept);
+            }
+        }
+        MvcResult started = web.mockMvc().perform(get("/product/").header(HttpHeaders.ACCEPT, "application/xml"))
+                .andReturn();
+        String body = web.mockMvc().perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.contains("<products>") && body.contains("<product>"), body);
+    }
+
+    @Test
+    void clientsPreferringJsonOrAnythingGetJson() throws Exception {
+        for (String accept : Arrays.asList("*/*", "application/json", "application/json, application/xml",
+                "application/json;q=1.0, application/xml;q=0.9", "*/*, application/xml;q=0.9")) {
+            assertEquals(MediaType.APPLICATION_JSON, contentType("/product/", accept), accept);
+        }
+    }
+
+    @Test
+    void xmlIsDroppedOnlyWhenNotPreferred() throws Exception {
+        assertEquals(Arrays.asList(MediaType.TEXT_HTML, MediaType.APPLICATION_XHTML_XML, MediaType.ALL),
+                withoutQuality(resolve(FIREFOX)));
+        assertEquals(Arrays.asList(MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON),
+                withoutQuality(resolve("application/xml, application/json")));
+        assertEquals(Arrays.asList(MediaType.TEXT_XML), resolve("text/xml"));
+        assertEquals(Arrays.asList(MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON),
+                withoutQuality(resolve("application/json;q=0.5, application/xml;q=0.9")));
+    }
+
+    private MediaType contentType(String list, String accept) throws Exception {
+        String contentType = web.mockMvc().perform(get(list).header(HttpHeaders.ACCEPT, accept))
+                .andReturn().getResponse().getContentType();
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return new MediaType(mediaType.getType(), mediaType.getSubtype());
+    }
+
+    private List<MediaType> resolve(String accept) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        return strategy.resolveMediaTypes(new ServletWebRequest(request));
+    }
+
+    private static List<MediaType> withoutQuality(List<MediaType> mediaTypes) {
+        MediaType[] types = new MediaType[mediaTypes.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = new MediaType(mediaTypes.get(i).getType(), mediaTypes.get(i).getSubtype());
+        }
+        return Arrays.asList(types);
+    }
+}
@@ -0,0 +1,146 @@
+package com.davis.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import com.davis.config.H2TestConfig;
+import com.davis.config.TestData;
+import com.davis.config.WebLayer;
+import com.davis.filter.CompressionFilter;
+
+/**
+ * Every format of a catalogue response has its own ETag, and the responses vary by Accept, so a
+ * client or cache never gets a 304 for a copy in another format. The streamed XML lists take part
+ * as well.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalGetTest {
+
+    private static final List<String> FORMATS = Arrays.asList("application/json", "application/x-jackson-smile",
+            "application/cbor");
+    private static final List<String> ENDPOINTS = Arrays.asList("/product/", "/product/category",
+            "/product/ETAG-P0", "/supplier/", "/supplier/ETAG-S0");
+
+    @Autowired
+    private ApplicationContext root;
+
+    private WebLayer web;
+
+    @BeforeAll
+    void startWebLayer() {
+        TestData.inventory(root.getBean(EntityManagerFactory.class), "ETAG", 1, 5);
+        web = new WebLayer(root, new CompressionFilter());
+    }
+
+    @AfterAll
+    void stopWebLayer() {
+        web.close();
+    }
+
+    @Test
+    void everyFormatHasItsOwnETag() throws Exception {
+        for (String endpoint : ENDPOINTS) {
+            Set<String> etags = new HashSet<>();
+            for (String format : FORMATS) {
+                MockHttpServletResponse response = fetch(endpoint, format, null);
+                assertEquals(200, response.getStatus(), endpoint + " as " + format);
+                assertTrue(response.getContentType().startsWith(format), response.getContentType());
+                etags.add(response.getHeader(HttpHeaders.ETAG));
+            }
+            assertEquals(FORMATS.size(), etags.size(), endpoint + ": " + etags);
+        }
+    }
+
+    @Test
+    void wildcardsGetTheJsonETag() throws Exception {
+        String json = fetch("/product/category", "application/json", null).getHeader(HttpHeaders.ETAG);
+        for (String accept : Arrays.asList("*/*", "application/*",
+                "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8",
+                "application/cbor;q=0.5, application/json")) {
+            assertEquals(json, fetch("/product/category", accept, null).getHeader(HttpHeaders.ETAG), accept);
+        }
+    }
+
+    @Test
+    void notModifiedOnlyForTheSameFormat() throws Exception {
+        for (String endpoint : ENDPOINTS) {
+            String jsonETag = fetch(endpoint, "application/json", null).getHeader(HttpHeaders.ETAG);
+
+            MockHttpServletResponse notModified = fetch(endpoint, "application/json", jsonETag);
+            assertEquals(304, notModified.getStatus(), endpoint);
+            assertEquals(0, notModified.getContentLength());
+
+            for (String format : FORMATS.subList(1, FORMATS.size())) {
+                MockHttpServletResponse other = fetch(endpoint, format, jsonETag);
+                assertEquals(200, other.getStatus(), endpoint + " as " + format);
+                assertNotEquals(jsonETag, other.getHeader(HttpHeaders.ETAG));
+                assertEquals(304, fetch(endpoint, format, other.getHeader(HttpHeaders.ETAG)).getStatus());
+            }
+        }
+    }
+
+    @Test
+    void streamedXmlListsAreConditionalToo() throws Exception {
+        for (String endpoint : Arrays.asList("/product/", "/supplier/")) {
+            MvcResult started = web.mockMvc().perform(get(endpoint).header(HttpHeaders.ACCEPT, "application/xml"))
+                    .andReturn();
+            MockHttpServletResponse ok = web.mockMvc().perform(asyncDispatch(started)).andReturn().getResponse();
+            assertEquals(200, ok.getStatus(), endpoint);
+            assertTrue(ok.getContentAsString().contains("ETAG-"), endpoint);
+            String xmlETag = ok.getHeader(HttpHeaders.ETAG);
+            assertTrue(xmlETag.endsWith("-xml\""), xmlETag);
+            assertNotEquals(fetch(endpoint, "application/json", null).getHeader(HttpHeaders.ETAG), xmlETag);
+
+            MvcResult notModified = web.mockMvc().perform(get(endpoint).header(HttpHeaders.ACCEPT, "application/xml")
+                    .header(HttpHeaders.IF_NONE_MATCH, xmlETag)).andReturn();
+            assertFalse(notModified.getRequest().isAsyncStarted(), endpoint); // No stream is opened
+            assertEquals(304, notModified.getResponse().getStatus(), endpoint);
+            assertEquals(0, notModified.getResponse().getContentLength());
+            assertEquals(Arrays.asList(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT),
+                    notModified.getResponse().getHeaders(HttpHeaders.VARY), endpoint);
+
+            assertEquals(200, fetch(endpoint, "application/json", xmlETag).getStatus(), endpoint);
+        }
+    }
+
+    @Test
+    void responsesVaryByAcceptAndAcceptEncoding() throws Exception {
+        for (String endpoint : ENDPOINTS) {
+            MockHttpServletResponse ok = fetch(endpoint, "application/json", null);
+            assertEquals(Arrays.asList(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT), ok.getHeaders(HttpHeaders.VARY),
+                    endpoint);
+            MockHttpServletResponse notModified = fetch(endpoint, "application/json", ok.getHeader(HttpHeaders.ETAG));
+            assertEquals(Arrays.asList(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT),
+                    notModified.getHeaders(HttpHeaders.VARY), endpoint);
+        }
+    }
+
+    private MockHttpServletResponse fetch(String endpoint, String accept, String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder request = get(endpoint).header(HttpHeaders.ACCEPT, accept);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return web.mockMvc().perform(request).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,121 @@
+package com.davis.filter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import com.davis.config.WebConfig;
+import com.davis.model.Product;
+import com.davis.model.ProductCategory;
+import com.davis.model.Supplier;
+
+/**
+ * Measures the CPU cost of {@link CompressionFilter} per compression level and coding, on the JSON
+ * of a 5,000-product catalogue; {@code identity} is the uncompressed baseline.
+ * {@link #main(String[])} first prints the compressed size and ratio of every level, so the time
+ * per response can be weighed against the bytes saved.
+ * Not run by the build; start it from the test classpath after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.davis.filter.CompressionBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final int[] LEVELS = { 1, 3, 6, 9 };
+
+    @Param({ "identity", "gzip", "deflate" })
+    public String encoding;
+
+    @Param({ "1", "3", "6", "9" })
+    public int level;
+
+    private CompressionFilter filter;
+
+    private byte[] body;
+
+    @Setup
+    public void createBody() throws Exception {
+        filter = new CompressionFilter(CompressionFilter.DEFAULT_MIN_SIZE, level);
+        body = catalogue();
+    }
+
+    @Benchmark
+    public int compress() throws Exception {
+        return run(filter, encoding, body).getContentAsByteArray().length;
+    }
+
+    public static void main(String[] args) throws Exception {
+        byte[] body = catalogue();
+        System.out.printf("Catalogue JSON: %,d bytes%n", body.length);
+        for (int level : LEVELS) {
+            int compressed = run(new CompressionFilter(CompressionFilter.DEFAULT_MIN_SIZE, level), "gzip", body)
+                    .getContentAsByteArray().length;
+            System.out.printf("gzip level %d: %,d bytes, ratio %.1f%n", level, compressed, (double) body.length / compressed);
+        }
+        runBenchmarks();
+    }
+
+    private static void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder().include(CompressionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static MockHttpServletResponse run(CompressionFilter filter, String encoding, byte[] body)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product/");
+        request.addHeader("Accept-Encoding", encoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            servletResponse.setContentType("application/json");
+            // Written in the 8 KiB pieces of the message converters
+            for (int offset = 0; offset < body.length; offset += 8192) {
+                servletResponse.getOutputStream().write(body, offset, Math.min(8192, body.length - offset));
+            }
+        });
+        return response;
+    }
+
+    private static byte[] catalogue() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ProductCategory category = new ProductCategory();
+            category.setId("PC-" + (i % 40));
+            category.setName("Category " + (i % 40));
+            Supplier supplier = new Supplier();
+            supplier.setSupplierId("SUP-" + (i % 200));
+            supplier.setName("Supplier " + (i % 200));
+            Product product = new Product();
+            product.setProductSKU("AF-" + i);
+            product.setBarCode(Long.toString(4_000_000_000_000L + i * 7919L));
+            product.setProduct("Product " + i);
+            product.setDescription("Description of product " + i + ", sold per unit");
+            product.setproductWeight((i % 20) / 4.0);
+            product.setUnitOfmeasurement(i % 2 == 0 ? "kg" : "l");
+            product.setStatus("ACTIVE");
+            product.setCategory(category);
+            product.setSupplier(supplier);
+            product.setCreatedOn(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+            products.add(product);
+        }
+        return new WebConfig().objectMapper().writeValueAsBytes(products);
+    }
+}
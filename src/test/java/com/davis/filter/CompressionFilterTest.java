@@ -0,0 +1,227 @@
+package com.davis.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class CompressionFilterTest {
+
+    private static final String JSON = "application/json";
+
+    private final CompressionFilter filter = new CompressionFilter();
+
+    @Test
+    void smallBodyIsSentAsIs() throws Exception {
+        byte[] body = json(CompressionFilter.DEFAULT_MIN_SIZE - 1);
+        MockHttpServletResponse response = run("gzip", writing(JSON, body, null));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    void largeBodyIsGzipped() throws Exception {
+        byte[] body = json(20_000);
+        MockHttpServletResponse response = run("gzip, deflate", writing(JSON, body, null));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertTrue(response.getContentAsByteArray().length < body.length);
+        assertArrayEquals(body, read(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    void deflateUsesZlibFraming() throws Exception {
+        byte[] body = json(20_000);
+        MockHttpServletResponse response = run("deflate", writing(JSON, body, null));
+
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        byte[] compressed = response.getContentAsByteArray();
+        assertEquals(0x78, compressed[0] & 0xff); // zlib header (RFC 1950), not a raw deflate stream
+        assertArrayEquals(body, read(new InflaterInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    void compressedBodyGetsWeakETag() throws Exception {
+        MockHttpServletResponse compressed = run("gzip", writing(JSON, json(20_000), "\"v1\""));
+        assertEquals("W/\"v1\"", compressed.getHeader("ETag"));
+
+        MockHttpServletResponse identity = run("gzip", writing(JSON, json(100), "\"v1\""));
+        assertEquals("\"v1\"", identity.getHeader("ETag"));
+    }
+
+    @Test
+    void binaryAndUnacceptedResponsesAreNotCompressed() throws Exception {
+        byte[] body = json(20_000);
+        MockHttpServletResponse binary = run("gzip", writing("application/x-jackson-smile", body, null));
+        assertNull(binary.getHeader("Content-Encoding"));
+        assertArrayEquals(body, binary.getContentAsByteArray());
+
+        MockHttpServletResponse refused = run("gzip;q=0, identity", writing(JSON, body, null));
+        assertNull(refused.getHeader("Content-Encoding"));
+        assertArrayEquals(body, refused.getContentAsByteArray());
+    }
+
+    @Test
+    void writerOutputIsCompressed() throws Exception {
+        String text = new String(json(20_000), StandardCharsets.UTF_8);
+        MockHttpServletResponse response = run("gzip", (request, servletResponse) -> {
+            servletResponse.setContentType("text/plain");
+            servletResponse.setCharacterEncoding("UTF-8");
+            servletResponse.getWriter().write(text);
+        });
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        byte[] body = read(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())));
+        assertEquals(text, new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void nonBlockingWritesPassThroughUncompressed() throws Exception {
+        byte[] body = json(20_000);
+        WriteListener listener = new NoOpWriteListener();
+        NonBlockingResponse response = new NonBlockingResponse();
+        run("gzip", response, (request, servletResponse) -> {
+            servletResponse.setContentType(JSON);
+            ServletOutputStream out = servletResponse.getOutputStream();
+            out.write(body, 0, 100); // Held back until the listener is set
+            out.setWriteListener(listener);
+            assertTrue(out.isReady());
+            out.write(body, 100, body.length - 100);
+        });
+
+        assertSame(listener, response.listener);
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void listenerAfterCompressionStartedIsRefused() throws Exception {
+        byte[] body = json(20_000);
+        run("gzip", new NonBlockingResponse(), (request, servletResponse) -> {
+            servletResponse.setContentType(JSON);
+            ServletOutputStream out = servletResponse.getOutputStream();
+            out.write(body);
+            assertThrows(IllegalStateException.class, () -> out.setWriteListener(new NoOpWriteListener()));
+        });
+    }
+
+    @Test
+    void negotiatesByQuality() {
+        assertEquals("gzip", CompressionFilter.negotiateEncoding("gzip, deflate, br"));
+        assertEquals("deflate", CompressionFilter.negotiateEncoding("gzip;q=0.5, deflate"));
+        assertEquals("gzip", CompressionFilter.negotiateEncoding("*"));
+        assertEquals("deflate", CompressionFilter.negotiateEncoding("*, gzip;q=0"));
+        assertNull(CompressionFilter.negotiateEncoding("identity"));
+        assertNull(CompressionFilter.negotiateEncoding(null));
+    }
+
+    private MockHttpServletResponse run(String acceptEncoding, FilterChain chain) throws Exception {
+        return run(acceptEncoding, new MockHttpServletResponse(), chain);
+    }
+
+    private MockHttpServletResponse run(String acceptEncoding, MockHttpServletResponse response, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product/");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static FilterChain writing(String contentType, byte[] body, String etag) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            if (etag != null) {
+                ((HttpServletResponse) response).setHeader("ETag", etag);
+            }
+            // Written in pieces, as message converters do
+            for (int offset = 0; offset < body.length; offset += 700) {
+                response.getOutputStream().write(body, offset, Math.min(700, body.length - offset));
+            }
+        };
+    }
+
+    private static byte[] json(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size - 1; i++) {
+            json.append("{\"sku\":\"P").append(i).append("\"},");
+        }
+        byte[] bytes = Arrays.copyOf(json.toString().getBytes(StandardCharsets.UTF_8), size);
+        bytes[size - 1] = ']';
+        return bytes;
+    }
+
+    /**
+     * Mock response whose output stream accepts a write listener, as a container's does.
+     */
+    private static final class NonBlockingResponse extends MockHttpServletResponse {
+
+        private WriteListener listener;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            ServletOutputStream out = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    listener = writeListener;
+                }
+            };
+        }
+    }
+
+    private static final class NoOpWriteListener implements WriteListener {
+
+        @Override
+        public void onWritePossible() {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read; (read = in.read(buffer)) > 0;) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
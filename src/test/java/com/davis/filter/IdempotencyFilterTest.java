@@ -0,0 +1,171 @@
+package com.davis.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class IdempotencyFilterTest {
+
+    private static final int CALLERS = 8;
+
+    private final IdempotencyFilter filter = new IdempotencyFilter();
+
+    private final AtomicInteger handled = new AtomicInteger(); // Requests that reached the chain
+
+    private final CountDownLatch release = new CountDownLatch(1); // Lets a blocking handler finish
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        FilterChain chain = creating(201, entered);
+
+        List<Future<MockHttpServletResponse>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(executor.submit(() -> run("/inventory/", "key-1", chain)));
+        }
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200); // The other callers reach the filter and wait for the running request
+        release.countDown();
+
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (Future<MockHttpServletResponse> caller : callers) {
+            responses.add(caller.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, handled.get());
+        int replayed = 0;
+        for (MockHttpServletResponse response : responses) {
+            assertEquals(201, response.getStatus());
+            assertEquals("/inventory/ID-1", response.getHeader("Location"));
+            assertEquals("{\"inventoryId\":\"ID-1\"}", response.getContentAsString());
+            if ("true".equals(response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED))) {
+                replayed++;
+            }
+        }
+        assertEquals(CALLERS - 1, replayed);
+    }
+
+    @Test
+    void retryIsReplayedWithoutReachingTheHandler() throws Exception {
+        release.countDown();
+        FilterChain chain = creating(201, null);
+
+        MockHttpServletResponse first = run("/inventory/", "key-1", chain);
+        MockHttpServletResponse retry = run("/inventory/", "key-1", chain);
+
+        assertEquals(1, handled.get());
+        assertNull(first.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertEquals(201, retry.getStatus());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals(first.getHeader("Location"), retry.getHeader("Location"));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+
+        // The same key on another endpoint, or a request without a key, runs
+        run("/product/", "key-1", chain);
+        run("/inventory/", null, chain);
+        assertEquals(3, handled.get());
+        assertEquals(1, filter.getMetrics().getHitCount());
+    }
+
+    @Test
+    void serverErrorsAreNotStored() throws Exception {
+        release.countDown();
+        FilterChain failing = creating(503, null);
+
+        assertEquals(503, run("/inventory/", "key-1", failing).getStatus());
+        MockHttpServletResponse retry = run("/inventory/", "key-1", creating(201, null));
+
+        assertEquals(2, handled.get());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertEquals("/inventory/ID-2", retry.getHeader("Location"));
+    }
+
+    @Test
+    void emptyAndOverlongKeysAreRefused() throws Exception {
+        release.countDown();
+        FilterChain chain = creating(201, null);
+        char[] longKey = new char[IdempotencyFilter.MAX_KEY_LENGTH + 1];
+        Arrays.fill(longKey, 'k');
+
+        assertEquals(400, run("/inventory/", "  ", chain).getStatus());
+        assertEquals(400, run("/inventory/", new String(longKey), chain).getStatus());
+        assertEquals(201, run("/inventory/", new String(longKey, 1, IdempotencyFilter.MAX_KEY_LENGTH), chain)
+                .getStatus());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void retryWaitingTooLongGetsConflict() throws Exception {
+        filter.setWaitTimeout(100, TimeUnit.MILLISECONDS);
+        CountDownLatch entered = new CountDownLatch(1);
+        FilterChain chain = creating(201, entered);
+
+        Future<MockHttpServletResponse> first = executor.submit(() -> run("/inventory/", "key-1", chain));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        MockHttpServletResponse retry = run("/inventory/", "key-1", chain);
+        assertEquals(HttpServletResponse.SC_CONFLICT, retry.getStatus());
+
+        release.countDown();
+        assertEquals(201, first.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(1, handled.get());
+    }
+
+    private MockHttpServletResponse run(String uri, String idempotencyKey, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    /**
+     * A handler creating an item with the next ID; when {@code entered} is given it signals it and
+     * blocks until the test releases it.
+     */
+    private FilterChain creating(int status, CountDownLatch entered) {
+        return (request, response) -> {
+            String id = "ID-" + handled.incrementAndGet();
+            if (entered != null) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(status);
+            http.setContentType("application/json");
+            http.setHeader("Location", "/inventory/" + id);
+            http.getOutputStream().write(("{\"inventoryId\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
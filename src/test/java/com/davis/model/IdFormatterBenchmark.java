@@ -0,0 +1,83 @@
+package com.davis.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link IdFormatter} with the String.format based helpers it replaced ({@link LegacyIds}),
+ * for single IDs and for a block of IDs taken from an {@link IdRange}.
+ * Not run by the build; start it from the test classpath after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.davis.model.IdFormatterBenchmark}
+ * (add {@code -prof gc} as argument to see the allocation per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdFormatterBenchmark {
+
+    private static final int YEAR = 2025;
+
+    @Param({ "7", "4242" })
+    public long value;
+
+    private final IdRange block = new IdRange(1, 100);
+
+    @Benchmark
+    public String skuLegacy() {
+        return LegacyIds.sku("apple", "fruits", 1.5, "kg", value);
+    }
+
+    @Benchmark
+    public String skuFormatter() {
+        return IdFormatter.formatSku("apple", "fruits", 1.5, "kg", value);
+    }
+
+    @Benchmark
+    public String inventoryIdLegacy() {
+        return LegacyIds.inventoryId(value, YEAR);
+    }
+
+    @Benchmark
+    public String inventoryIdFormatter() {
+        return IdFormatter.formatInventoryId(value, YEAR);
+    }
+
+    @Benchmark
+    public void inventoryBlockLegacy(Blackhole blackhole) {
+        for (int i = 0; i < block.size(); i++) {
+            blackhole.consume(LegacyIds.inventoryId(block.get(i), YEAR));
+        }
+    }
+
+    @Benchmark
+    public void inventoryBlockFormatter(Blackhole blackhole) {
+        for (int i = 0; i < block.size(); i++) {
+            blackhole.consume(IdFormatter.formatInventoryId(block.get(i), YEAR));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(IdFormatterBenchmark.class.getSimpleName());
+        if (args.length > 0 && "-prof".equals(args[0]) && args.length > 1) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
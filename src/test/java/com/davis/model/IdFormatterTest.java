@@ -0,0 +1,29 @@
+package com.davis.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class IdFormatterTest {
+
+    private static final int YEAR = 2025;
+
+    @Test
+    void matchesLegacyHelpers() {
+        for (long value = 0; value < 200_000; value++) {
+            assertEquals(LegacyIds.inventoryId(value, YEAR), IdFormatter.formatInventoryId(value, YEAR));
+            assertEquals(LegacyIds.supplierId(value, YEAR), IdFormatter.formatSupplierId(value, YEAR));
+            assertEquals(LegacyIds.productCategoryId(value), IdFormatter.formatProductCategoryId(value));
+            assertEquals(LegacyIds.sku("apple", "fruits", 1.5, "kg", value),
+                    IdFormatter.formatSku("apple", "fruits", 1.5, "kg", value));
+        }
+    }
+
+    @Test
+    void skuVariants() {
+        assertEquals("AF-1.5kg-001", IdFormatter.formatSku("apple", "fruits", 1.5, "kg", 1));
+        assertEquals("AF-2.0g-42", IdFormatter.formatSku("apple", "fruits", 2.0, "g", 42));
+        assertEquals("AF-100", IdFormatter.formatSku("apple", "fruits", null, "kg", 100));
+        assertEquals("A-007", IdFormatter.formatSku("apple", null, 0.0, null, 7));
+    }
+}
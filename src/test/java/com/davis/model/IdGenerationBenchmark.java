@@ -0,0 +1,74 @@
+package com.davis.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import com.davis.config.H2TestConfig;
+
+/**
+ * Measures the throughput of {@link IdGeneration} on the in-memory H2 database of the tests with
+ * 1, 2, 4 and 8 threads sharing one sequence. A block size of 1 makes every value a database
+ * reservation; with the default block size most values come from the in-memory block.
+ * Not run by the build; start it from the test classpath after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.davis.model.IdGenerationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final String SEQUENCE = "skuNumber";
+
+    private static final int[] THREADS = { 1, 2, 4, 8 };
+
+    @Param({ "1", "100" })
+    public int blockSize;
+
+    private AnnotationConfigApplicationContext context;
+
+    private IdGeneration idGeneration;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new AnnotationConfigApplicationContext(H2TestConfig.class);
+        idGeneration = context.getBean(IdGeneration.class);
+        idGeneration.setBlockSize(SEQUENCE, blockSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return idGeneration.getNextIdNumber(SEQUENCE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder()
+                    .include(IdGenerationBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
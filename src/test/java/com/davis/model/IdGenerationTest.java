@@ -0,0 +1,115 @@
+package com.davis.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.davis.config.H2TestConfig;
+
+@SpringJUnitConfig(H2TestConfig.class)
+class IdGenerationTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 500;
+
+    @Autowired
+    private IdGeneration idGeneration;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentAllocationsNeverOverlap() throws Exception {
+        String sequence = createSequence("concurrentTest");
+        idGeneration.setBlockSize(sequence, 7); // Small blocks, so threads keep reserving from the table
+        TransactionTemplate callerTransaction = new TransactionTemplate(transactionManager);
+        Set<Long> allocated = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                boolean transactional = t % 2 == 0; // Half of the callers reserve inside their own transaction
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < ROUNDS; i++) {
+                        int count = i % 10 + 1;
+                        if (transactional) {
+                            callerTransaction.execute(status -> allocate(sequence, count, allocated));
+                        } else {
+                            allocate(sequence, count, allocated);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Every value handed out lies below the value recorded in the table
+        long stored = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT idValue FROM ID_Gen WHERE idName = ?", Long.class, sequence);
+        for (long value : allocated) {
+            assertTrue(value < stored, "value " + value + " was not reserved");
+        }
+    }
+
+    @Test
+    void reservationSurvivesRollbackOfCaller() {
+        String sequence = createSequence("rollbackTest");
+        idGeneration.setBlockSize(sequence, 5);
+        TransactionTemplate callerTransaction = new TransactionTemplate(transactionManager);
+
+        long first = callerTransaction.execute(status -> {
+            status.setRollbackOnly();
+            return idGeneration.getNextIdNumber(sequence);
+        });
+        IdRange range = idGeneration.getNextIdNumbers(sequence, 10);
+
+        assertEquals(0, first);
+        assertEquals(5, range.getFirst()); // The rolled-back caller did not give its block back
+    }
+
+    @Test
+    void unknownSequenceFails() {
+        assertThrows(RuntimeException.class, () -> idGeneration.getNextIdNumber("noSuchSequence"));
+    }
+
+    private Void allocate(String sequence, int count, Set<Long> allocated) {
+        if (count == 1) {
+            long value = idGeneration.getNextIdNumber(sequence);
+            assertTrue(allocated.add(value), "value " + value + " handed out twice");
+        } else {
+            IdRange range = idGeneration.getNextIdNumbers(sequence, count);
+            for (int i = 0; i < count; i++) {
+                long value = range.get(i);
+                assertTrue(allocated.add(value), "value " + value + " handed out twice");
+            }
+        }
+        return null;
+    }
+
+    private String createSequence(String name) {
+        new JdbcTemplate(dataSource).update("MERGE INTO ID_Gen (idName, idValue) KEY (idName) VALUES (?, 0)", name);
+        return name;
+    }
+}
@@ -0,0 +1,90 @@
+package com.davis.model;
+
+/**
+ * The ID helpers the services used before {@link IdFormatter}, kept as the reference for its
+ * output and as the baseline of {@link IdFormatterBenchmark}.
+ */
+final class LegacyIds {
+
+    private LegacyIds() {
+    }
+
+    static String sku(String productName, String categoryName, double weight, String unitOfmeasurement,
+            long skuNumber) {
+        StringBuilder skuBuilder = new StringBuilder();
+        skuBuilder.append(getInitial(productName));
+        skuBuilder.append(getInitial(categoryName));
+        skuBuilder.append(getWeightAndMeasurement(weight, unitOfmeasurement));
+        skuBuilder.append(getSequentialNumber(skuNumber));
+        return skuBuilder.toString();
+    }
+
+    static String inventoryId(long id, int year) {
+        if (id <= 9) {
+            return "IN0000" + id + "" + year;
+        } else if (id >= 10 && id <= 99) {
+            return "IN000" + id + "" + year;
+        } else if (id >= 100 && id <= 999) {
+            return "IN00" + id + "" + year;
+        } else if (id >= 1000 && id <= 9999) {
+            return "IN0" + id + "" + year;
+        } else {
+            return "IN" + id + "" + year;
+        }
+    }
+
+    static String supplierId(long id, int year) {
+        if (id <= 9) {
+            return "SU000" + id + "" + year;
+        } else if (id >= 10 && id <= 99) {
+            return "SU00" + id + "" + year;
+        } else if (id >= 100 && id <= 999) {
+            return "SU0" + id + "" + year;
+        } else {
+            return "SU" + id + "" + year;
+        }
+    }
+
+    static String productCategoryId(long id) {
+        if (id <= 9) {
+            return "CAT00" + id;
+        } else if (id >= 10 && id < 100) {
+            return "CAT0" + id;
+        } else {
+            return "CATO" + id;
+        }
+    }
+
+    private static String getInitial(String name) {
+        if (name != null && !name.isEmpty()) {
+            return name.substring(0, 1).toUpperCase();
+        }
+        return "";
+    }
+
+    private static String getWeightAndMeasurement(double weight, String unitOfmeasurement) {
+        if (weight > 0) {
+            StringBuilder weightBuilder = new StringBuilder("-").append(weight);
+            if (unitOfmeasurement != null && !unitOfmeasurement.isEmpty()) {
+                if (unitOfmeasurement.length() == 1) {
+                    weightBuilder.append(unitOfmeasurement.substring(0, 1));
+                } else {
+                    weightBuilder.append(unitOfmeasurement.substring(0, 2));
+                }
+            }
+            return weightBuilder.toString();
+        }
+        return "";
+    }
+
+    private static String getSequentialNumber(long skuNumber) {
+        if (skuNumber <= 9) {
+            return "-" + String.format("%03d", skuNumber);
+        } else if (skuNumber >= 10 && skuNumber <= 99) {
+            return "-" + String.format("%02d", skuNumber);
+        } else if (skuNumber >= 100) {
+            return "-" + String.format("%01d", skuNumber);
+        }
+        return "";
+    }
+}
@@ -0,0 +1,77 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import com.davis.dto.BarcodeIndexMetrics;
+
+/**
+ * GTINs are found through the primitive table across resizes, zero-padded GTINs share an entry,
+ * and every other barcode is kept under its exact text.
+ */
+class BarcodeIndexTest {
+
+    private final BarcodeIndex index = new BarcodeIndex();
+
+    @Test
+    void findsEveryGtinAcrossResizes() {
+        int count = BarcodeIndex.INITIAL_CAPACITY * 4;
+        for (int i = 0; i < count; i++) {
+            index.put(ean13(i), "SKU-" + i);
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals("SKU-" + i, index.find(ean13(i)));
+        }
+        assertNull(index.find(ean13(count)));
+        BarcodeIndexMetrics metrics = index.getMetrics();
+        assertEquals(count, metrics.getNumericBarcodes());
+        assertEquals(0, metrics.getOtherBarcodes());
+        assertEquals(BarcodeIndex.INITIAL_CAPACITY * 8, metrics.getCapacity()); // At most half full
+    }
+
+    @Test
+    void putReplacesTheSkuOfABarcode() {
+        index.put("4006381333931", "OLD");
+        index.put("4006381333931", "NEW");
+        index.put("ABC-1", "OLD");
+        index.put("ABC-1", "NEW");
+
+        assertEquals("NEW", index.find("4006381333931"));
+        assertEquals("NEW", index.find("ABC-1"));
+        assertEquals(1, index.getMetrics().getNumericBarcodes());
+        assertEquals(1, index.getMetrics().getOtherBarcodes());
+    }
+
+    @Test
+    void zeroPaddedGtinsAreOneItem() {
+        index.put("036000291452", "UPC"); // UPC-A, the same item as EAN-13 0036000291452
+        assertEquals("UPC", index.find("0036000291452"));
+        assertEquals("UPC", index.find("00036000291452"));
+    }
+
+    @Test
+    void otherCodesAreKeptByExactText() {
+        index.put("42", "SHORT");
+        index.put("00042", "PADDED");
+        index.put("1234567890", "TEN-DIGITS");
+        index.put("A-42", "TEXT");
+        index.put("00000000", "ZEROS"); // A GTIN length, but key 0 marks empty slots
+
+        assertEquals("SHORT", index.find("42"));
+        assertEquals("PADDED", index.find("00042"));
+        assertNull(index.find("042"));
+        assertEquals("TEN-DIGITS", index.find("1234567890"));
+        assertNull(index.find("01234567890"));
+        assertEquals("TEXT", index.find("A-42"));
+        assertEquals("ZEROS", index.find("00000000"));
+        assertNull(index.find("0000000000000"));
+        assertEquals(0, index.getMetrics().getNumericBarcodes());
+        assertEquals(5, index.getMetrics().getOtherBarcodes());
+    }
+
+    private static String ean13(int i) {
+        return Long.toString(4_000_000_000_000L + i * 7919L);
+    }
+}
@@ -0,0 +1,184 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.TestData;
+import com.davis.config.WebLayer;
+import com.davis.dto.ChangeSet;
+import com.davis.exception.InvalidRequestException;
+import com.davis.model.Product;
+
+/**
+ * Sync tokens round-trip, pages continue after the last (updatedOn, SKU) received without
+ * skipping or repeating rows that share a timestamp, recent changes are held back until they
+ * settle, and malformed tokens are refused with 400.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChangeFeedTest {
+
+    private static final String PREFIX = "FEED";
+    private static final int ROWS = 50;
+    private static final LocalDateTime SAME_TIME = LocalDateTime.of(1971, 1, 1, 0, 0); // Before every other row
+
+    @Autowired
+    private ApplicationContext root;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    private WebLayer web;
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, PREFIX, ROWS, 5);
+        TestData.inventory(entityManagerFactory, PREFIX + "NEW", 1, 5);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.createQuery("update Product p set p.updatedOn = :time where p.productSKU like :prefix")
+                    .setParameter("time", SAME_TIME).setParameter("prefix", PREFIX + "-P%").executeUpdate();
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+        web = new WebLayer(root);
+    }
+
+    @AfterEach
+    void resetClock() {
+        ChangeFeed.setClock(Clock.systemUTC());
+    }
+
+    @AfterAll
+    void stopWebLayer() {
+        web.close();
+    }
+
+    @Test
+    void tokenRoundTrips() {
+        Product row = new Product();
+        row.setProductSKU("SKU|with separator");
+        row.setUpdatedOn(LocalDateTime.of(2026, 3, 29, 1, 30, 15, 123_000_000));
+
+        ChangeSet<Product> changes = ChangeFeed.page(ChangeFeed.parse(null), 1, Collections.singletonList(row),
+                Product::getUpdatedOn, Product::getProductSKU);
+        ChangeFeed.Position position = ChangeFeed.parse(changes.getNextToken());
+
+        assertEquals(row.getUpdatedOn(), position.since);
+        assertEquals(row.getProductSKU(), position.after);
+        assertFalse(changes.getNextToken().contains("="), changes.getNextToken()); // URL-safe, unpadded
+
+        // An empty page keeps the position it was read from
+        assertEquals(changes.getNextToken(), ChangeFeed.page(position, 1, Collections.<Product>emptyList(),
+                Product::getUpdatedOn, Product::getProductSKU).getNextToken());
+    }
+
+    @Test
+    void rowsSharingATimestampArePagedWithoutGapsOrRepeats() {
+        ChangeFeed.setClock(Clock.offset(Clock.systemUTC(), Duration.ofHours(1))); // Every row has settled
+        List<String> received = new ArrayList<>();
+        String token = null;
+        ChangeSet<Product> changes;
+        boolean passed = false; // Whether a newer row was reached; the shared rows are the oldest of the feed
+        int pages = 0;
+        do {
+            assertTrue(++pages <= ROWS, "The feed does not advance");
+            changes = productService.getProductChanges(token, 7);
+            assertTrue(changes.getItems().size() <= 7);
+            for (Product product : changes.getItems()) {
+                if (product.getProductSKU().startsWith(PREFIX + "-P")) {
+                    received.add(product.getProductSKU());
+                } else {
+                    passed = true;
+                }
+            }
+            token = changes.getNextToken();
+        } while (changes.isHasMore() && !passed);
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < ROWS; i++) {
+            expected.add(PREFIX + "-P" + i);
+        }
+        assertEquals(ROWS, received.size());
+        assertEquals(expected, new HashSet<>(received));
+        List<String> sorted = new ArrayList<>(received);
+        Collections.sort(sorted);
+        assertEquals(sorted, received); // Ties are ordered by SKU
+    }
+
+    @Test
+    void recentChangesAreHeldBackUntilTheySettle() {
+        Product row = productService.getProduct(PREFIX + "NEW-P0");
+        LocalDateTime updatedOn = row.getUpdatedOn();
+        Product before = new Product();
+        before.setProductSKU("");
+        before.setUpdatedOn(updatedOn.minusNanos(1_000_000));
+        String token = ChangeFeed.page(ChangeFeed.parse(null), 1, Collections.singletonList(before),
+                Product::getUpdatedOn, Product::getProductSKU).getNextToken();
+
+        ChangeFeed.setClock(clockAt(updatedOn.plusSeconds(ChangeFeed.SETTLE_SECONDS).minusNanos(1_000_000)));
+        ChangeSet<Product> unsettled = productService.getProductChanges(token, 100);
+        assertTrue(unsettled.getItems().isEmpty(), () -> skus(unsettled).toString());
+        assertEquals(token, unsettled.getNextToken()); // The client asks again from the same position
+
+        ChangeFeed.setClock(clockAt(updatedOn.plusSeconds(ChangeFeed.SETTLE_SECONDS)));
+        ChangeSet<Product> settled = productService.getProductChanges(token, 100);
+        assertTrue(skus(settled).contains(PREFIX + "NEW-P0"), () -> skus(settled).toString());
+    }
+
+    @Test
+    void malformedTokensAreRefused() throws Exception {
+        for (String token : new String[] { "not a token", encode("no separator"), encode("|SKU"),
+                encode("yesterday|SKU"), encode("2026-13-01T00:00|SKU") }) {
+            assertThrows(InvalidRequestException.class, () -> ChangeFeed.parse(token), token);
+            assertEquals(400, web.mockMvc().perform(get("/product/changes").param("since", token))
+                    .andReturn().getResponse().getStatus(), token);
+        }
+    }
+
+    private static Clock clockAt(LocalDateTime utc) {
+        return Clock.fixed(utc.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> skus(ChangeSet<Product> changes) {
+        List<String> skus = new ArrayList<>();
+        for (Product product : changes.getItems()) {
+            skus.add(product.getProductSKU());
+        }
+        return skus;
+    }
+}
@@ -0,0 +1,138 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.TestData;
+import com.davis.dto.ImportReport;
+import com.davis.dto.ImportRowError;
+
+/**
+ * Rejected rows are reported by line without stopping the import, a row the database refuses
+ * costs only itself and not its chunk, and a byte order mark before the header is ignored.
+ * Every test imports against its own product, so the stored rows can be counted per test.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InventoryImportServiceTest {
+
+    private static final String PREFIX = "IMPORT";
+    private static final String HEADER = "product,supplier,unitsAvailable,expiryDate\n";
+    private static final String TOO_LONG = new String(new char[300]).replace('\0', 'x'); // Over the column length
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InventoryImportService importService;
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, PREFIX, 3, 5);
+    }
+
+    @Test
+    void malformedRowsAndUnknownReferencesAreReportedByLine() {
+        String sku = PREFIX + "-P0";
+        String supplier = PREFIX + "-S0";
+        long before = storedItems(sku);
+        ImportReport report = importService.importReceipts(new StringReader(HEADER
+                + sku + "," + supplier + ",4,2027-01-01\n"
+                + sku + "," + supplier + ",four,\n"
+                + "UNKNOWN-SKU," + supplier + ",4,\n"
+                + sku + ",UNKNOWN-SUPPLIER,4,\n"
+                + sku + "," + supplier + ",-1,\n"
+                + sku + "," + supplier + ",6,\n"));
+
+        assertTrue(report.isCompleted());
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(4, report.getRowsFailed());
+        List<ImportRowError> errors = report.getErrors();
+        assertError(errors.get(0), 3, "Invalid unitsAvailable 'four'");
+        assertError(errors.get(1), 4, "Unknown product UNKNOWN-SKU");
+        assertError(errors.get(2), 5, "Unknown supplier UNKNOWN-SUPPLIER");
+        assertError(errors.get(3), 6, "Negative unitsAvailable");
+        assertEquals(before + 2, storedItems(sku));
+    }
+
+    @Test
+    void refusedRowDoesNotRejectItsChunk() {
+        String sku = PREFIX + "-P1";
+        long before = storedItems(sku);
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 10; i++) {
+            csv.append(sku).append(',').append(PREFIX).append("-S1,").append(i + 1).append(',')
+                    .append(i == 4 ? TOO_LONG : "2027-01-01").append('\n');
+        }
+
+        ImportReport report = importService.importReceipts(new StringReader(csv.toString()));
+
+        assertTrue(report.isCompleted());
+        assertEquals(10, report.getRowsRead());
+        assertEquals(9, report.getRowsImported());
+        assertEquals(1, report.getRowsFailed());
+        ImportRowError error = report.getErrors().get(0);
+        assertEquals(6, error.getLine()); // The fifth row, after the header
+        assertTrue(error.getError().startsWith("Not imported: "), error.getError());
+        assertEquals(before + 9, storedItems(sku));
+    }
+
+    @Test
+    void byteOrderMarkBeforeTheHeaderIsIgnored() {
+        String sku = PREFIX + "-P2";
+        ImportReport report = importService.importReceipts(new StringReader("\uFEFF" + HEADER
+                + sku + "," + PREFIX + "-S2,3,\r\n"));
+
+        assertTrue(report.isCompleted(), () -> report.getErrors().toString());
+        assertEquals(1, report.getRowsImported());
+        assertEquals(0, report.getRowsFailed());
+    }
+
+    @Test
+    void largeFilesAreImportedInChunks() {
+        String sku = PREFIX + "-P2";
+        long before = storedItems(sku);
+        int rows = InventoryImportService.CHUNK_SIZE * 2 + 500;
+        int refused = InventoryImportService.CHUNK_SIZE + 250; // In the second chunk
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < rows; i++) {
+            csv.append(sku).append(',').append(PREFIX).append("-S2,1,")
+                    .append(i == refused ? TOO_LONG : "").append('\n');
+        }
+
+        ImportReport report = importService.importReceipts(new StringReader(csv.toString()));
+
+        assertTrue(report.isCompleted());
+        assertEquals(rows, report.getRowsRead());
+        assertEquals(rows - 1, report.getRowsImported());
+        assertEquals(1, report.getRowsFailed());
+        assertEquals(refused + 2, report.getErrors().get(0).getLine());
+        assertEquals(before + rows - 1, storedItems(sku));
+    }
+
+    private long storedItems(String sku) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select count(i) from Inventory i where i.product.productSKU = :sku",
+                    Long.class).setParameter("sku", sku).getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static void assertError(ImportRowError error, int line, String message) {
+        assertEquals(line, error.getLine(), error.getError());
+        assertEquals(message, error.getError());
+    }
+}
@@ -0,0 +1,126 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import com.davis.dto.WriteBehindMetrics;
+import com.davis.model.Inventory;
+import com.davis.model.Product;
+
+class InventoryWriteBehindTest {
+
+    private final StubInventoryService inventoryService = new StubInventoryService();
+    private final InventoryWriteBehind writeBehind = new InventoryWriteBehind();
+
+    @BeforeEach
+    void start() {
+        ReflectionTestUtils.setField(writeBehind, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(writeBehind, "productService", new ProductService() {
+            @Override
+            public Product getProduct(String sku) {
+                return new Product();
+            }
+        });
+        writeBehind.start();
+    }
+
+    @AfterEach
+    void stop() {
+        writeBehind.stop();
+    }
+
+    @Test
+    void receiptsSurviveDatabaseOutage() throws Exception {
+        inventoryService.available = false;
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(writeBehind.submit(receipt()));
+        }
+        waitFor(() -> writeBehind.getMetrics().getRetrying() == 20);
+        assertEquals(0, writeBehind.getMetrics().getWritten());
+
+        inventoryService.available = true;
+        waitFor(() -> writeBehind.getMetrics().getWritten() == 20);
+        WriteBehindMetrics metrics = writeBehind.getMetrics();
+        assertEquals(0, metrics.getRetrying());
+        assertEquals(0, metrics.getFailed());
+        assertEquals(20, inventoryService.stored.size());
+    }
+
+    @Test
+    void refusedReceiptIsDroppedAlone() throws Exception {
+        inventoryService.refused = "ID-2";
+        for (int i = 0; i < 5; i++) {
+            writeBehind.submit(receipt());
+        }
+        waitFor(() -> writeBehind.getMetrics().getWritten() + writeBehind.getMetrics().getFailed() == 5);
+        WriteBehindMetrics metrics = writeBehind.getMetrics();
+        assertEquals(4, metrics.getWritten());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(0, metrics.getRetrying());
+    }
+
+    private static Inventory receipt() {
+        Product product = new Product();
+        product.setProductSKU("SKU");
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        return inventory;
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.met()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private interface Condition {
+        boolean met();
+    }
+
+    /**
+     * Stores receipts in a list; can simulate an unavailable database or a refused receipt.
+     */
+    private static final class StubInventoryService extends InventoryService {
+        private final List<String> stored = new CopyOnWriteArrayList<>();
+        private volatile boolean available = true;
+        private volatile String refused;
+        private int nextId;
+
+        @Override
+        public synchronized void prepareInventory(Inventory inventory) {
+            inventory.setInventoryId("ID-" + nextId++);
+        }
+
+        @Override
+        public List<Inventory> addInventories(List<Inventory> items) {
+            if (!available) {
+                throw new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+            }
+            for (Inventory item : items) {
+                if (item.getInventoryId().equals(refused)) {
+                    throw new PersistenceException(new ConstraintViolationException("duplicate",
+                            new SQLException("duplicate"), "PK_Inventory"));
+                }
+            }
+            for (Inventory item : items) {
+                stored.add(item.getInventoryId());
+            }
+            return items;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.davis.service;
+
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.QueryCounter;
+import com.davis.config.TestData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Every list endpoint loads its rows, including the associations it serializes, with one statement
+ * regardless of the number of rows. The results are serialized inside the count, as the endpoints do.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListQueryCountTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private QueryCounter queries;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, "LIST", 25, 20);
+        queries = new QueryCounter(entityManagerFactory);
+    }
+
+    @BeforeEach
+    void evictCaches() {
+        QueryCounter.evictCaches(entityManagerFactory);
+    }
+
+    @Test
+    void products() {
+        queries.assertStatements(1, "GET /product/", () -> serialize(productService.getProducts()));
+        queries.assertStatements(1, "GET /product/?view=summary", () -> serialize(productService.getProductSummaries()));
+        queries.assertStatements(1, "GET /product/?limit=10", () -> serialize(productService.getProductPage(null, 10)));
+        queries.assertStatements(1, "GET /product/ (XML)", () -> productService.exportProducts(this::serialize));
+    }
+
+    @Test
+    void productCategories() {
+        queries.assertStatements(1, "GET /product/category", () -> serialize(productService.getProductCategories()));
+    }
+
+    @Test
+    void suppliers() {
+        queries.assertStatements(1, "GET /supplier/", () -> serialize(supplierService.getSupplies()));
+        queries.assertStatements(1, "GET /supplier/?view=summary", () -> serialize(supplierService.getSupplierSummaries()));
+        queries.assertStatements(1, "GET /supplier/ (XML)", () -> supplierService.exportSupplies(this::serialize));
+    }
+
+    @Test
+    void inventory() {
+        queries.assertStatements(1, "GET /inventory/", () -> serialize(inventoryService.getInventory()));
+        queries.assertStatements(1, "GET /inventory/?view=summary", () -> serialize(inventoryService.getInventorySummaries()));
+        queries.assertStatements(1, "GET /inventory/ (XML)", () -> inventoryService.exportInventory(this::serialize));
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.QueryCounter;
+import com.davis.config.TestData;
+import com.davis.dto.BatchItemResult;
+import com.davis.dto.BatchResult;
+import com.davis.model.Product;
+import com.davis.model.ProductCategory;
+import com.davis.model.Supplier;
+
+/**
+ * A batch save reports every product on its own, rejects unknown references without failing the
+ * batch, rolls back only the failing transaction, and sends far fewer statements than rows.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductBatchSaveTest {
+
+    private static final String PREFIX = "BULK";
+
+    private static final int TRANSACTION_SIZE = 1000; // Products inserted per transaction by the service
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeAll
+    void insertReferences() {
+        // Creates the categories BULK-C0, BULK-C1 and the suppliers BULK-S0, BULK-S1
+        TestData.inventory(entityManagerFactory, PREFIX, 2, 0);
+    }
+
+    @Test
+    void savesEveryValidProductAndRejectsUnknownReferences() {
+        int rows = 1000;
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            products.add(product("saved " + i, i % 100 == 7 ? "BULK-CX" : "BULK-C" + (i % 2),
+                    i % 100 == 9 ? "BULK-SX" : "BULK-S" + (i % 2)));
+        }
+
+        AtomicReference<BatchResult> result = new AtomicReference<>();
+        long statements = new QueryCounter(entityManagerFactory)
+                .count(() -> result.set(productService.saveProducts(products)));
+
+        List<BatchItemResult> items = result.get().getItems();
+        assertEquals(rows, items.size());
+        assertEquals(980, result.get().getSaved());
+        assertEquals(20, result.get().getFailed());
+        Set<String> skus = new HashSet<>();
+        for (int i = 0; i < rows; i++) {
+            BatchItemResult item = items.get(i);
+            assertEquals(i, item.getIndex());
+            if (i % 100 == 7) {
+                assertFalse(item.isSaved());
+                assertEquals("Unknown category BULK-CX", item.getError());
+            } else if (i % 100 == 9) {
+                assertFalse(item.isSaved());
+                assertEquals("Unknown supplier BULK-SX", item.getError());
+            } else {
+                assertTrue(item.isSaved(), item.getError());
+                assertNull(item.getError());
+                assertTrue(skus.add(item.getId()), "Duplicate SKU " + item.getId());
+            }
+        }
+
+        assertEquals(980, countStored("saved "));
+        Product stored = productService.getProduct(items.get(0).getId());
+        assertNotNull(stored);
+        assertEquals("ACTIVE", stored.getStatus());
+        assertEquals("BULK-C0", stored.getCategory().getId());
+        assertEquals("BULK-S0", stored.getSupplier().getSupplierId());
+        // 980 inserts go out in 20 batches of 50, plus the lookups and the SKU reservation; the
+        // categories and suppliers must not be selected again for every batch
+        assertTrue(statements <= 30, "Expected JDBC batching, but " + statements + " statements were sent for "
+                + rows + " rows");
+    }
+
+    @Test
+    void rollsBackOnlyTheFailingTransaction() {
+        int rows = TRANSACTION_SIZE + 200;
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            products.add(product("chunk " + i, "BULK-C0", "BULK-S0"));
+        }
+        // Too long for the column, so the second transaction fails on insert
+        int failing = TRANSACTION_SIZE + 50;
+        products.get(failing).setDescription(String.join("", Collections.nCopies(300, "x")));
+
+        BatchResult result = productService.saveProducts(products);
+
+        assertEquals(TRANSACTION_SIZE, result.getSaved());
+        assertEquals(200, result.getFailed());
+        for (BatchItemResult item : result.getItems()) {
+            assertEquals(item.getIndex() < TRANSACTION_SIZE, item.isSaved());
+        }
+        assertTrue(result.getItems().get(failing).getError().startsWith("Not saved, the transaction of products "
+                + TRANSACTION_SIZE + " to " + (rows - 1) + " failed"));
+        assertEquals(TRANSACTION_SIZE, countStored("chunk "));
+    }
+
+    private Product product(String name, String categoryId, String supplierId) {
+        ProductCategory category = new ProductCategory();
+        category.setId(categoryId);
+        Supplier supplier = new Supplier();
+        supplier.setSupplierId(supplierId);
+
+        Product product = new Product();
+        product.setProduct(PREFIX + " " + name);
+        product.setDescription(name);
+        product.setCategory(category);
+        product.setSupplier(supplier);
+        return product;
+    }
+
+    private long countStored(String name) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager
+                    .createQuery("select count(p) from Product p where p.product like :name", Long.class)
+                    .setParameter("name", PREFIX + " " + name + "%")
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.QueryCounter;
+import com.davis.config.TestData;
+import com.davis.model.IdFormatter;
+import com.davis.model.IdGeneration;
+import com.davis.model.Product;
+import com.davis.model.ProductCategory;
+import com.davis.model.Supplier;
+
+/**
+ * Products and unknown SKUs are served from the cache after the first lookup, and saving a
+ * product replaces a cached "unknown SKU" entry.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductCacheTest {
+
+    private static final String PREFIX = "PCACHE";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private IdGeneration idGeneration;
+
+    private QueryCounter queries;
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, PREFIX, 1, 5);
+        queries = new QueryCounter(entityManagerFactory);
+    }
+
+    @Test
+    void knownSkuIsLoadedOnce() {
+        String sku = PREFIX + "-P0";
+        queries.assertStatements(1, "first lookup", () -> assertNotNull(productService.getProduct(sku)));
+        queries.assertStatements(0, "repeated lookup", () -> assertEquals(sku, productService.getProduct(sku).getProductSKU()));
+    }
+
+    @Test
+    void unknownSkuIsCachedToo() {
+        String sku = PREFIX + "-UNKNOWN";
+        queries.assertStatements(1, "first lookup", () -> assertNull(productService.getProduct(sku)));
+        queries.assertStatements(0, "repeated lookup", () -> assertNull(productService.getProduct(sku)));
+    }
+
+    @Test
+    void savingAProductReplacesACachedUnknownSku() {
+        Product product = new Product();
+        product.setProduct("Cached apple");
+        product.setproductWeight(1.5);
+        product.setUnitOfmeasurement("kg");
+        ProductCategory category = new ProductCategory();
+        category.setId(PREFIX + "-C0");
+        category.setName(PREFIX + " category 0");
+        product.setCategory(category);
+        Supplier supplier = new Supplier();
+        supplier.setSupplierId(PREFIX + "-S0");
+        product.setSupplier(supplier);
+
+        // The save takes the next value of the sequence, so its SKU is known beforehand
+        long next = idGeneration.getNextIdNumber("skuNumber") + 1;
+        String sku = IdFormatter.formatSku(product.getProduct(), category.getName(), 1.5, "kg", next);
+        assertNull(productService.getProduct(sku));
+
+        assertEquals(sku, productService.saveProduct(product).getProductSKU());
+
+        Product found = productService.getProduct(sku);
+        assertNotNull(found);
+        assertEquals("Cached apple", found.getProduct());
+    }
+
+    @Test
+    void invalidateDropsTheEntry() {
+        ProductCache cache = new ProductCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("X", sku -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("X", sku -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, loads.get());
+
+        cache.invalidate("X");
+        Product product = new Product();
+        product.setProductSKU("X");
+        assertEquals(product, cache.get("X", sku -> {
+            loads.incrementAndGet();
+            return product;
+        }));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getMetrics().getHitCount());
+        assertEquals(2, cache.getMetrics().getMissCount());
+    }
+}
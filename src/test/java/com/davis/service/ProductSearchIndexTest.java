@@ -0,0 +1,72 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.davis.dto.ProductSummary;
+
+class ProductSearchIndexTest {
+
+    private static final int COMMON_PRODUCTS = 6_000;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new ProductSearchIndex();
+        for (int i = 0; i < COMMON_PRODUCTS; i++) {
+            index.index(product(String.format("A%05d", i), String.format("Apple juice %05d", i), "Fresh"));
+        }
+        index.index(product("M1", "Milk whole", "Avocado flavour"));
+        index.index(product("M2", "Milk skimmed", "Avocado flavour"));
+        index.index(product("M3", "Oat milk", "Apricot flavour"));
+    }
+
+    @Test
+    void shortTermDoesNotHideMatchesOfSelectiveTerm() {
+        // "a" matches every product; the matches of "milk" must survive the intersection
+        assertEquals(skus("M2", "M1", "M3"), skus(index.search("a milk", 10)));
+    }
+
+    @Test
+    void rankingSeesAllCandidates() {
+        List<ProductSummary> results = index.search("juice", 3);
+        assertEquals(skus("A00000", "A00001", "A00002"), skus(results));
+    }
+
+    @Test
+    void nameMatchesRankFirst() {
+        // M1 and M2 start with the query, M3 has "milk" in its name only
+        assertEquals(skus("M2", "M1", "M3"), skus(index.search("milk", 10)));
+        assertEquals(skus("M2", "M1"), skus(index.search("milk av", 10)));
+    }
+
+    @Test
+    void resultsAreCapped() {
+        assertEquals(ProductSearchIndex.MAX_RESULTS, index.search("apple", 1_000).size());
+        assertEquals(0, index.search("apple nothing", 10).size());
+    }
+
+    private static ProductSummary product(String sku, String name, String description) {
+        return new ProductSummary(sku, null, name, description, null, null, null, null, null, null, null);
+    }
+
+    private static List<String> skus(String... skus) {
+        List<String> list = new ArrayList<>();
+        for (String sku : skus) {
+            list.add(sku);
+        }
+        return list;
+    }
+
+    private static List<String> skus(List<ProductSummary> products) {
+        List<String> list = new ArrayList<>();
+        for (ProductSummary product : products) {
+            list.add(product.getProductSKU());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,58 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.QueryCounter;
+import com.davis.config.TestData;
+
+/**
+ * Categories and suppliers are served from the query cache and the second-level cache once loaded.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    private QueryCounter queries;
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, "REF", 10, 5);
+        queries = new QueryCounter(entityManagerFactory);
+    }
+
+    @BeforeEach
+    void evictCaches() {
+        QueryCounter.evictCaches(entityManagerFactory);
+    }
+
+    @Test
+    void repeatedCategoryListIssuesNoStatement() {
+        queries.assertStatements(1, "first ProductCategory.getCategories", productService::getProductCategories);
+        queries.assertStatements(0, "repeated ProductCategory.getCategories", productService::getProductCategories);
+        assertTrue(productService.getProductCategories().size() >= 10);
+    }
+
+    @Test
+    void repeatedSupplierListIssuesNoStatement() {
+        queries.assertStatements(1, "first Supplier.findAll", supplierService::getSupplies);
+        queries.assertStatements(0, "repeated Supplier.findAll", supplierService::getSupplies);
+        assertTrue(supplierService.getSupplies().size() >= 10);
+    }
+}
@@ -0,0 +1,174 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.davis.config.H2TestConfig;
+import com.davis.config.QueryCounter;
+import com.davis.config.TestData;
+import com.davis.dao.InventoryDao;
+import com.davis.dto.ReorderAlert;
+
+/**
+ * The alerts are loaded at startup, listed most severe first and kept up to date from the stock
+ * levels the services report, only once their transaction commits; reading them runs no SQL.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReorderAlertsTest {
+
+    private static final String PREFIX = "REORDER";
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private InventoryDao inventoryDao;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ReorderAlerts reorderAlerts;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReorderAlerts alerts = new ReorderAlerts(); // Not shared with the other tests
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, PREFIX, 3, 4); // Reorder point 10: due
+        TestData.inventory(entityManagerFactory, PREFIX + "OK", 2, 50); // Not due
+        ReflectionTestUtils.setField(alerts, "inventoryDao", inventoryDao);
+    }
+
+    @Test
+    void startupPassLoadsTheDueItems() {
+        ReorderAlerts started = new ReorderAlerts();
+        ReflectionTestUtils.setField(started, "inventoryDao", inventoryDao);
+        started.rebuild();
+
+        List<String> ids = ids(started.getAlerts(null), PREFIX);
+        assertEquals(Arrays.asList(PREFIX + "-I0", PREFIX + "-I1", PREFIX + "-I2"), ids);
+        for (ReorderAlert alert : started.getAlerts(null)) {
+            assertTrue(alert.getInventoryId().startsWith(PREFIX + "OK-") == false, alert.getInventoryId());
+            assertTrue(ReorderAlerts.isDue(alert), alert.getInventoryId());
+        }
+    }
+
+    @Test
+    void mostSevereFirst() {
+        ReorderAlerts alerts = new ReorderAlerts(); // Only the levels below, whatever the other tests applied
+        alerts.stockChanged(Arrays.asList(level("SEV-A", 9), level("SEV-D", 5), level("SEV-B", 0),
+                level("SEV-C", 5), level("SEV-E", 10)));
+
+        assertEquals(Arrays.asList("SEV-B", "SEV-C", "SEV-D", "SEV-A", "SEV-E"), ids(alerts.getAlerts(null), "SEV"));
+        assertEquals(Arrays.asList("SEV-B", "SEV-C"), ids(alerts.getAlerts(2), "SEV"));
+        assertEquals(Collections.emptyList(), alerts.getAlerts(0));
+
+        // A new level moves the item to its new place
+        alerts.stockChanged(Collections.singletonList(level("SEV-E", 1)));
+        assertEquals(Arrays.asList("SEV-B", "SEV-E", "SEV-C", "SEV-D", "SEV-A"), ids(alerts.getAlerts(null), "SEV"));
+    }
+
+    @Test
+    void itemKeepsItsSinceWhileDueAndIsRemovedWhenRestocked() {
+        alerts.stockChanged(Collections.singletonList(new ReorderAlert("SINCE-A", "SKU", 8, 10, MONDAY)));
+        alerts.stockChanged(Collections.singletonList(new ReorderAlert("SINCE-A", "SKU", 3, 10, MONDAY.plusDays(1))));
+
+        ReorderAlert alert = find(alerts, "SINCE-A");
+        assertEquals(3, alert.getUnitsAvailable());
+        assertEquals(MONDAY, alert.getSince());
+
+        alerts.stockChanged(Collections.singletonList(new ReorderAlert("SINCE-A", "SKU", 11, 10, MONDAY.plusDays(2))));
+        assertNull(find(alerts, "SINCE-A"));
+
+        // Due again: a new alert with a new since
+        alerts.stockChanged(Collections.singletonList(new ReorderAlert("SINCE-A", "SKU", 10, 10, MONDAY.plusDays(3))));
+        assertEquals(MONDAY.plusDays(3), find(alerts, "SINCE-A").getSince());
+
+        // Items without a reorder point are never due
+        alerts.stockChanged(Collections.singletonList(new ReorderAlert("SINCE-B", "SKU", 0, 0, MONDAY)));
+        assertNull(find(alerts, "SINCE-B"));
+    }
+
+    @Test
+    void levelsAreAppliedOnlyAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.execute(status -> {
+            alerts.stockChanged(Collections.singletonList(level("COMMIT-A", 2)));
+            assertNull(find(alerts, "COMMIT-A")); // Not visible before the commit
+            return null;
+        });
+        assertEquals(2, find(alerts, "COMMIT-A").getUnitsAvailable());
+
+        transaction.execute(status -> {
+            alerts.stockChanged(Collections.singletonList(level("COMMIT-B", 2)));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertNull(find(alerts, "COMMIT-B"));
+    }
+
+    @Test
+    void saleThroughTheServiceRaisesAnAlert() {
+        String id = TestData.inventory(entityManagerFactory, PREFIX + "SALE", 1, 12).get(0);
+        assertNull(find(reorderAlerts, id));
+
+        inventoryService.sellUnits(id, 3);
+
+        ReorderAlert alert = find(reorderAlerts, id);
+        assertEquals(9, alert.getUnitsAvailable());
+        assertEquals(PREFIX + "SALE-P0", alert.getProductSKU());
+    }
+
+    @Test
+    void dashboardReadsRunNoSql() {
+        QueryCounter queries = new QueryCounter(entityManagerFactory);
+        queries.assertStatements(0, "1,000 dashboard reads", () -> {
+            for (int i = 0; i < 1000; i++) {
+                reorderAlerts.getAlerts(i % 2 == 0 ? 20 : null);
+            }
+        });
+    }
+
+    private static ReorderAlert level(String id, int unitsAvailable) {
+        return new ReorderAlert(id, "SKU-" + id, unitsAvailable, 10, MONDAY);
+    }
+
+    private static ReorderAlert find(ReorderAlerts alerts, String id) {
+        for (ReorderAlert alert : alerts.getAlerts(null)) {
+            if (alert.getInventoryId().equals(id)) {
+                return alert;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> ids(List<ReorderAlert> alerts, String prefix) {
+        List<String> ids = new ArrayList<>();
+        for (ReorderAlert alert : alerts) {
+            if (alert.getInventoryId().startsWith(prefix + "-")) {
+                ids.add(alert.getInventoryId());
+            }
+        }
+        return ids;
+    }
+}
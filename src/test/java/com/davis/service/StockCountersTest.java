@@ -0,0 +1,163 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.TestData;
+import com.davis.dto.InventorySummary;
+import com.davis.exception.ConflictException;
+import com.davis.exception.NotFoundException;
+
+@SpringJUnitConfig(H2TestConfig.class)
+class StockCountersTest {
+
+    private static final String OUT_OF_STOCK = "OUT OF STOCK";
+
+    @Autowired
+    private StockCounters stockCounters;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void synchronousSaleMarksItemOutOfStock() {
+        String id = TestData.inventory(entityManagerFactory, "SYNC", 1, 5).get(0);
+
+        assertEquals("IN STOCK", inventoryService.sellUnits(id, 4).getStatus());
+        InventorySummary sold = inventoryService.sellUnits(id, 1);
+
+        assertEquals(0, sold.getUnitsAvailable());
+        assertEquals(OUT_OF_STOCK, sold.getStatus());
+    }
+
+    @Test
+    void batchedSalesMarkItemsOutOfStock() throws Exception {
+        List<String> ids = TestData.inventory(entityManagerFactory, "BATCH", 2, 4);
+        assertTrue(stockCounters.getMetrics().isEnabled());
+        long flushed = stockCounters.getMetrics().getUnitsFlushed();
+
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(stockCounters.recordSale(ids.get(0), 1));
+        }
+        assertNotNull(stockCounters.recordSale(ids.get(1), 3));
+        waitFor(() -> stockCounters.getMetrics().getUnitsFlushed() == flushed + 7);
+
+        InventorySummary soldOut = inventoryService.getInventorySummary(ids.get(0));
+        assertEquals(0, soldOut.getUnitsAvailable());
+        assertEquals(OUT_OF_STOCK, soldOut.getStatus());
+        InventorySummary left = inventoryService.getInventorySummary(ids.get(1));
+        assertEquals(1, left.getUnitsAvailable());
+        assertEquals("IN STOCK", left.getStatus());
+    }
+
+    @Test
+    void salesOfDeletedItemAreReportedAndRefusedAfterwards() throws Exception {
+        String id = TestData.inventory(entityManagerFactory, "GONE", 1, 10).get(0);
+        long unmatched = stockCounters.getMetrics().getUnitsUnmatched();
+        assertNotNull(stockCounters.recordSale(id, 1));
+
+        // Deleted after its first sale, while its level is in memory: the next sale is still acknowledged,
+        // then reported when flushed (with the first one if that was not flushed before the deletion)
+        new JdbcTemplate(dataSource).update("DELETE FROM Inventory WHERE StockId = ?", id);
+        assertNotNull(stockCounters.recordSale(id, 2));
+        waitFor(() -> stockCounters.getMetrics().getUnitsUnmatched() >= unmatched + 2);
+        assertTrue(stockCounters.getMetrics().getUnitsUnmatched() <= unmatched + 3);
+
+        assertThrows(NotFoundException.class, () -> stockCounters.recordSale(id, 1));
+    }
+
+    @Test
+    void salesBeyondTheUnreservedUnitsAreRefused() throws Exception {
+        String id = TestData.inventory(entityManagerFactory, "OVERSELL", 1, 5).get(0);
+        inventoryService.reserveUnits(id, 2);
+        long refused = stockCounters.getMetrics().getSalesRefused();
+        long flushed = stockCounters.getMetrics().getUnitsFlushed();
+
+        assertThrows(ConflictException.class, () -> stockCounters.recordSale(id, 4));
+        assertNotNull(stockCounters.recordSale(id, 2));
+        assertNotNull(stockCounters.recordSale(id, 1));
+        assertThrows(ConflictException.class, () -> stockCounters.recordSale(id, 1));
+        assertEquals(refused + 2, stockCounters.getMetrics().getSalesRefused());
+
+        waitFor(() -> stockCounters.getMetrics().getUnitsFlushed() == flushed + 3);
+        InventorySummary left = inventoryService.getInventorySummary(id);
+        assertEquals(2, left.getUnitsAvailable());
+        assertEquals(2, left.getReservedUnits());
+    }
+
+    @Test
+    void reservationsMadeMeanwhileAreSeenAfterTheNextFlush() throws Exception {
+        String id = TestData.inventory(entityManagerFactory, "RESLEVEL", 1, 10).get(0);
+        assertNotNull(stockCounters.recordSale(id, 1));
+        waitFor(() -> inventoryService.getInventorySummary(id).getUnitsAvailable() == 9);
+
+        // 2 unreserved units are left; the level in memory may still say 9 until the next flush
+        inventoryService.reserveUnits(id, 7);
+        long flushed = stockCounters.getMetrics().getUnitsFlushed();
+        assertNotNull(stockCounters.recordSale(id, 1));
+        waitFor(() -> stockCounters.getMetrics().getUnitsFlushed() == flushed + 1);
+
+        assertThrows(ConflictException.class, () -> stockCounters.recordSale(id, 2));
+        assertNotNull(stockCounters.recordSale(id, 1));
+        waitFor(() -> stockCounters.getMetrics().getUnitsFlushed() == flushed + 2);
+        InventorySummary left = inventoryService.getInventorySummary(id);
+        assertEquals(7, left.getUnitsAvailable());
+        assertEquals(7, left.getReservedUnits());
+    }
+
+    @Test
+    void journalErrorsAreReportedInTheMetricsAndRetried() throws Exception {
+        String id = TestData.inventory(entityManagerFactory, "JOURNAL", 1, 10).get(0);
+        Path directory = Paths.get(System.getProperty(StockCounters.JOURNAL_DIRECTORY_PROPERTY));
+        Path away = directory.resolveSibling(directory.getFileName() + ".away");
+        long failed = stockCounters.getMetrics().getFailedFlushes();
+
+        // A file in place of the journal directory: segments cannot be written
+        Files.move(directory, away);
+        Files.createFile(directory);
+        try {
+            assertNotNull(stockCounters.recordSale(id, 3));
+            waitFor(() -> stockCounters.getMetrics().getFailedFlushes() > failed);
+            assertNotNull(stockCounters.getMetrics().getLastError());
+            assertEquals(10, inventoryService.getInventorySummary(id).getUnitsAvailable());
+        } finally {
+            Files.delete(directory);
+            Files.move(away, directory);
+        }
+        waitFor(() -> inventoryService.getInventorySummary(id).getUnitsAvailable() == 7);
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.met()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met in time");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private interface Condition {
+        boolean met();
+    }
+}
@@ -0,0 +1,100 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.TestData;
+import com.davis.dto.InventorySummary;
+import com.davis.exception.ConflictException;
+import com.davis.exception.InvalidRequestException;
+import com.davis.exception.NotFoundException;
+
+@SpringJUnitConfig(H2TestConfig.class)
+class StockReservationTest {
+
+    private static final int THREADS = 8;
+    private static final int UNITS = 100;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        String id = TestData.inventory(entityManagerFactory, "RESERVE", 1, UNITS).get(0);
+
+        // Three times as many attempts as units; exactly the units in stock succeed
+        int reserved = sum(runConcurrently(() -> attempts(3 * UNITS / THREADS + 1, () -> inventoryService.reserveUnits(id, 1))));
+        InventorySummary full = inventoryService.getInventorySummary(id);
+        assertEquals(UNITS, reserved);
+        assertEquals(UNITS, full.getReservedUnits());
+        assertEquals(UNITS, full.getUnitsAvailable());
+
+        int released = sum(runConcurrently(() -> attempts(3 * UNITS / THREADS + 1, () -> inventoryService.releaseUnits(id, 1))));
+        assertEquals(UNITS, released);
+        assertEquals(0, inventoryService.getInventorySummary(id).getReservedUnits());
+    }
+
+    @Test
+    void reservationsAreChecked() {
+        String id = TestData.inventory(entityManagerFactory, "RESCHECK", 1, 5).get(0);
+
+        assertEquals(3, inventoryService.reserveUnits(id, 3).getReservedUnits());
+        assertThrows(ConflictException.class, () -> inventoryService.reserveUnits(id, 3));
+        assertThrows(ConflictException.class, () -> inventoryService.releaseUnits(id, 4));
+        assertThrows(InvalidRequestException.class, () -> inventoryService.reserveUnits(id, 0));
+        assertThrows(NotFoundException.class, () -> inventoryService.reserveUnits("RESCHECK-none", 1));
+        assertEquals(3, inventoryService.getInventorySummary(id).getReservedUnits());
+    }
+
+    private static int attempts(int count, Runnable attempt) {
+        int succeeded = 0;
+        for (int i = 0; i < count; i++) {
+            try {
+                attempt.run();
+                succeeded++;
+            } catch (ConflictException e) {
+                // Not enough units left
+            }
+        }
+        return succeeded;
+    }
+
+    private static List<Integer> runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(task));
+            }
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int sum(List<Integer> values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
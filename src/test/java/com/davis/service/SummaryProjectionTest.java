@@ -0,0 +1,142 @@
+package com.davis.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import com.davis.config.H2TestConfig;
+import com.davis.config.QueryCounter;
+import com.davis.config.TestData;
+import com.davis.dto.InventorySummary;
+import com.davis.dto.ProductSummary;
+import com.davis.dto.SupplierSummary;
+import com.davis.model.Inventory;
+import com.davis.model.Product;
+import com.davis.model.Supplier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The summary views carry the same values as the entities they replace, without loading any entity.
+ */
+@SpringJUnitConfig(H2TestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SummaryProjectionTest {
+
+    private static final String PREFIX = "PROJ";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void insertRows() {
+        TestData.inventory(entityManagerFactory, PREFIX, 15, 7);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void evictCaches() {
+        QueryCounter.evictCaches(entityManagerFactory);
+    }
+
+    @Test
+    void productSummariesMatchEntities() {
+        Map<String, Product> entities = new HashMap<>();
+        for (Product product : productService.getProducts()) {
+            entities.put(product.getProductSKU(), product);
+        }
+        List<ProductSummary> summaries = loadWithoutEntities(productService::getProductSummaries);
+        int compared = 0;
+        for (ProductSummary summary : summaries) {
+            if (summary.getProductSKU().startsWith(PREFIX)) {
+                assertEquals(objectMapper.valueToTree(ProductSummary.from(entities.get(summary.getProductSKU()))),
+                        objectMapper.valueToTree(summary));
+                compared++;
+            }
+        }
+        assertEquals(15, compared);
+    }
+
+    @Test
+    void inventorySummariesMatchEntities() {
+        Map<String, Inventory> entities = new HashMap<>();
+        for (Inventory inventory : inventoryService.getInventory()) {
+            entities.put(inventory.getInventoryId(), inventory);
+        }
+        List<InventorySummary> summaries = loadWithoutEntities(inventoryService::getInventorySummaries);
+        int compared = 0;
+        for (InventorySummary summary : summaries) {
+            Inventory entity = entities.get(summary.getInventoryId());
+            if (summary.getInventoryId().startsWith(PREFIX)) {
+                assertEquals(entity.getProduct().getProductSKU(), summary.getProductSKU());
+                assertEquals(entity.getProduct().getProduct(), summary.getProductName());
+                assertEquals(entity.getSupplier().getSupplierId(), summary.getSupplierId());
+                assertEquals(entity.getSupplier().getName(), summary.getSupplierName());
+                assertEquals(entity.getUnitsAvailable(), summary.getUnitsAvailable());
+                assertEquals(entity.getReservedUnits(), summary.getReservedUnits());
+                assertEquals(entity.getReOrderPoint(), summary.getReOrderPoint());
+                assertEquals(entity.getUnitSellingPrice(), summary.getUnitSellingPrice());
+                assertEquals(entity.getExpiryDate(), summary.getExpiryDate());
+                assertEquals(entity.getStatus(), summary.getStatus());
+                compared++;
+            }
+        }
+        assertEquals(15, compared);
+    }
+
+    @Test
+    void supplierSummariesMatchEntities() {
+        Map<String, Supplier> entities = new HashMap<>();
+        for (Supplier supplier : supplierService.getSupplies()) {
+            entities.put(supplier.getSupplierId(), supplier);
+        }
+        List<SupplierSummary> summaries = loadWithoutEntities(supplierService::getSupplierSummaries);
+        int compared = 0;
+        for (SupplierSummary summary : summaries) {
+            Supplier entity = entities.get(summary.getSupplierId());
+            if (summary.getSupplierId().startsWith(PREFIX)) {
+                assertEquals(entity.getName(), summary.getName());
+                assertEquals(entity.getContact() == null ? null : entity.getContact().getPhoneNumber(), summary.getPhoneNumber());
+                assertEquals(entity.getContact() == null ? null : entity.getContact().getEmail(), summary.getEmail());
+                assertEquals(entity.getAddress() == null ? null : entity.getAddress().getDistrict(), summary.getDistrict());
+                assertEquals(entity.getStatus(), summary.getStatus());
+                compared++;
+            }
+        }
+        assertEquals(15, compared);
+    }
+
+    /**
+     * Runs a summary query and asserts that it instantiated no entity.
+     */
+    private <T> List<T> loadWithoutEntities(java.util.function.Supplier<List<T>> query) {
+        long loaded = statistics.getEntityLoadCount();
+        List<T> summaries = query.get();
+        assertEquals(loaded, statistics.getEntityLoadCount(), "entities loaded by a summary query");
+        assertTrue(summaries.size() >= 15);
+        return summaries;
+    }
+}
@@ -0,0 +1,2 @@
+CREATE TABLE IF NOT EXISTS ID_Gen (idName VARCHAR(50) PRIMARY KEY, idValue BIGINT NOT NULL);
+MERGE INTO ID_Gen (idName, idValue) KEY (idName) VALUES ('skuNumber', 1000), ('productCategory', 1000), ('supplier', 1000), ('inventoryId', 1000), ('stockJournal', 0);